@@ -1,9 +1,15 @@
 package duplicates;
 
+import duplicates.controller.HashStrategies;
 import duplicates.view.MainScreenView;
 
 public class Launcher {
     public static void main(String[] args) {
+        // Hash-Kalibrierung im Hintergrund, damit "AUTO" beim ersten Suchlauf bereit ist
+        Thread calibration = new Thread(HashStrategies::calibrate, "Duplicates-HashCalibration");
+        calibration.setDaemon(true);
+        calibration.start();
+
         // GUI Start im Event Dispatch Thread
         javax.swing.SwingUtilities.invokeLater(() -> {
             new MainScreenView(); // Erstellt und zeigt das Hauptfenster
@@ -0,0 +1,84 @@
+package duplicates.controller;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * BK-Baum über 64-Bit-Hashes mit Hamming-Abstand für Nachbarschaftsanfragen
+ * ("alle Hashes mit Abstand ≤ k"). Dank Dreiecksungleichung wird je Knoten nur in Kinder
+ * abgestiegen, deren Kantenabstand in [d − k, d + k] liegt – bei kleinem k nur ein Bruchteil
+ * des Baums statt aller Einträge.
+ *
+ * Spaltenweise gespeichert (Hash, ID, erstes Kind, nächstes Geschwister, Kantenabstand in
+ * primitiven Arrays), damit auch Millionen Einträge ohne Objekt je Knoten auskommen.
+ *
+ * Nicht thread-sicher.
+ */
+final class BkTree {
+
+    private static final int NONE = -1;
+
+    private int nodes;
+    private long[] hashes = new long[1024];
+    private int[] ids = new int[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private byte[] edge = new byte[1024];
+
+    int size() {
+        return nodes;
+    }
+
+    /** Fügt einen Hash mit seiner ID ein (gleiche Hashes sind erlaubt). */
+    void add(long hash, int id) {
+        if (nodes == hashes.length) grow();
+        int node = nodes++;
+        hashes[node] = hash;
+        ids[node] = id;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        if (node == 0) return;
+
+        int current = 0;
+        while (true) {
+            int d = PerceptualHash.distance(hash, hashes[current]);
+            int child = firstChild[current];
+            while (child != NONE && edge[child] != d) child = nextSibling[child];
+            if (child == NONE) {
+                edge[node] = (byte) d;
+                nextSibling[node] = firstChild[current];
+                firstChild[current] = node;
+                return;
+            }
+            current = child;
+        }
+    }
+
+    /** Meldet die IDs aller Einträge mit Abstand ≤ {@code maxDistance} zu {@code hash}. */
+    void search(long hash, int maxDistance, IntConsumer hits) {
+        if (nodes == 0) return;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int d = PerceptualHash.distance(hash, hashes[node]);
+            if (d <= maxDistance) hits.accept(ids[node]);
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (Math.abs(edge[child] - d) <= maxDistance) {
+                    if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                    stack[top++] = child;
+                }
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = hashes.length * 2;
+        hashes = Arrays.copyOf(hashes, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        edge = Arrays.copyOf(edge, capacity);
+    }
+}
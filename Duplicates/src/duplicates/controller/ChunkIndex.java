@@ -0,0 +1,101 @@
+package duplicates.controller;
+
+import java.util.Arrays;
+
+/**
+ * Fingerabdruck-Index aller bisher gesehenen Blöcke: je eindeutigem Block Schlüssel
+ * (Fingerabdruck + Länge) und bis zu {@link #MAX_HOLDERS} Dateien, die ihn enthalten.
+ *
+ * Offene Adressierung über primitive Arrays (rund 40 Byte je Block bei 2/3 Füllgrad);
+ * der Speicher wächst nur mit der Zahl eindeutiger Blöcke, nicht mit den Dateigrößen.
+ * Blöcke, die in sehr vielen Dateien vorkommen (Nullblöcke u. ä.), merken sich nur die
+ * ersten Dateien – für die Paarbildung sagen sie ohnehin wenig aus.
+ * Thread-sicher.
+ */
+final class ChunkIndex {
+
+    /** Dateien, die je Block gemerkt werden. */
+    static final int MAX_HOLDERS = 4;
+
+    private static final int EMPTY = -1;
+
+    private long[] fingerprints = new long[1 << 16];
+    private int[] lengths = new int[1 << 16];
+    private int[] holders = newHolders(1 << 16); // MAX_HOLDERS Einträge je Slot, EMPTY = frei
+    private int size;
+    private long uniqueBytes;
+
+    /**
+     * Trägt den Block für eine Datei ein.
+     *
+     * @param others nimmt die Dateien auf, die den Block schon vorher enthielten (Länge ≥ MAX_HOLDERS)
+     * @return -1, wenn der Block neu ist; sonst die Anzahl in {@code others} (0, wenn die Datei
+     *         den Block selbst schon enthielt)
+     */
+    synchronized int record(long fingerprint, int length, int file, int[] others) {
+        if (size * 3 >= fingerprints.length * 2) grow();
+        int slot = find(fingerprints, lengths, holders, fingerprint, length);
+        int base = slot * MAX_HOLDERS;
+        if (holders[base] == EMPTY) {
+            fingerprints[slot] = fingerprint;
+            lengths[slot] = length;
+            holders[base] = file;
+            size++;
+            uniqueBytes += length;
+            return -1;
+        }
+        int n = 0;
+        while (n < MAX_HOLDERS && holders[base + n] != EMPTY) {
+            if (holders[base + n] == file) return 0;
+            others[n] = holders[base + n];
+            n++;
+        }
+        if (n < MAX_HOLDERS) holders[base + n] = file;
+        return n;
+    }
+
+    /** Anzahl eindeutiger Blöcke. */
+    synchronized int size() {
+        return size;
+    }
+
+    /** Summe der Längen aller eindeutigen Blöcke (= Platzbedarf nach Block-Deduplizierung). */
+    synchronized long getUniqueBytes() {
+        return uniqueBytes;
+    }
+
+    // --- Interna ---
+
+    private static int find(long[] fingerprints, int[] lengths, int[] holders, long fingerprint, int length) {
+        int mask = fingerprints.length - 1;
+        int slot = (int) (fingerprint ^ fingerprint >>> 32) & mask; // Fingerabdruck ist bereits gleichverteilt
+        while (holders[slot * MAX_HOLDERS] != EMPTY
+                && (fingerprints[slot] != fingerprint || lengths[slot] != length)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = fingerprints.length * 2;
+        long[] newFingerprints = new long[capacity];
+        int[] newLengths = new int[capacity];
+        int[] newHolders = newHolders(capacity);
+        for (int i = 0; i < fingerprints.length; i++) {
+            if (holders[i * MAX_HOLDERS] == EMPTY) continue;
+            int slot = find(newFingerprints, newLengths, newHolders, fingerprints[i], lengths[i]);
+            newFingerprints[slot] = fingerprints[i];
+            newLengths[slot] = lengths[i];
+            System.arraycopy(holders, i * MAX_HOLDERS, newHolders, slot * MAX_HOLDERS, MAX_HOLDERS);
+        }
+        fingerprints = newFingerprints;
+        lengths = newLengths;
+        holders = newHolders;
+    }
+
+    private static int[] newHolders(int capacity) {
+        int[] holders = new int[capacity * MAX_HOLDERS];
+        Arrays.fill(holders, EMPTY);
+        return holders;
+    }
+}
@@ -0,0 +1,122 @@
+package duplicates.controller;
+
+import duplicates.model.DuplicateSearchModel;
+import duplicates.model.FileEntry;
+import duplicates.model.PathDictionary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Blockvergleich: findet Dateipaare mit großem gemeinsamen Anteil, auch wenn sie als Ganzes
+ * verschieden sind (z. B. zwei Stände eines VM-Images).
+ *
+ * Jede Datei wird per {@link FastCdc} in inhaltsdefinierte Blöcke zerlegt und gegen den
+ * {@link ChunkIndex} abgeglichen. Ein bereits bekannter Block zählt als gemeinsamer Anteil mit
+ * jeder Datei, die ihn schon enthält, und als per Block-Deduplizierung einsparbar. Gelesen wird
+ * als Strom; gehalten werden nur eindeutige Blöcke und die Summen je Dateipaar.
+ *
+ * Gemeldet wird jedes Paar, dessen gemeinsamer Anteil an der größeren Datei mindestens
+ * {@code minSharePercent} beträgt, als Gruppe aus zwei Dateien mit dem Anteil als Ähnlichkeit.
+ */
+final class ChunkOverlapMatcher implements DeferredMatcher {
+
+    /** Kleinere Dateien bestehen nur aus ein, zwei Blöcken – das erledigt der exakte Abgleich. */
+    static final long MIN_FILE_SIZE = 4L * FastCdc.AVG_SIZE;
+
+    private final PathDictionary paths;
+    private final HashStrategy strategy;
+    private final int minSharePercent;
+    private final DuplicateSearchStatistics statistics;
+    private final BooleanSupplier cancelled;
+    private final DuplicateMatcher.Listener listener;
+
+    private final ChunkIndex index = new ChunkIndex();
+    private final List<FileEntry> files = new ArrayList<>();
+    private final Map<Long, Long> sharedBytes = new HashMap<>(); // (kleinere ID << 32 | größere ID) -> Bytes
+
+    ChunkOverlapMatcher(PathDictionary paths, HashStrategy strategy, int minSharePercent,
+                        DuplicateSearchStatistics statistics, BooleanSupplier cancelled,
+                        DuplicateMatcher.Listener listener) {
+        this.paths = paths;
+        this.strategy = strategy;
+        this.minSharePercent = minSharePercent;
+        this.statistics = statistics;
+        this.cancelled = cancelled;
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean accepts(FileEntry entry) {
+        return entry.size() >= MIN_FILE_SIZE;
+    }
+
+    /** Zerlegt eine Datei in Blöcke und zählt gemeinsame Bytes je Partnerdatei. */
+    @Override
+    public void insert(FileEntry entry) {
+        if (cancelled.getAsBoolean()) return;
+        int id;
+        synchronized (this) {
+            id = files.size();
+            files.add(entry);
+        }
+        Map<Integer, Long> shared = new HashMap<>(); // Partner -> gemeinsame Bytes dieser Datei
+        long[] bytes = {0L, 0L}; // gelesen, davon bekannt
+        int[] others = new int[ChunkIndex.MAX_HOLDERS];
+        try {
+            FastCdc.chunk(entry.file(), (fingerprint, length) -> {
+                bytes[0] += length;
+                int n = index.record(fingerprint, length, id, others);
+                if (n < 0) return; // neuer Block
+                bytes[1] += length;
+                for (int i = 0; i < n; i++) shared.merge(others[i], (long) length, Long::sum);
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            statistics.addUnreadable(1);
+            return;
+        }
+        statistics.addChunkedBytes(bytes[0], bytes[1]);
+        synchronized (this) {
+            for (Map.Entry<Integer, Long> e : shared.entrySet()) {
+                sharedBytes.merge(pairKey(id, e.getKey()), e.getValue(), Long::sum);
+            }
+        }
+    }
+
+    /** Meldet Paare ab dem Mindestanteil, der größte Anteil zuerst. */
+    @Override
+    public synchronized void finish() {
+        statistics.setUniqueChunks(index.size());
+        List<long[]> pairs = new ArrayList<>(); // {Anteil in %, a, b}
+        for (Map.Entry<Long, Long> e : sharedBytes.entrySet()) {
+            int a = (int) (e.getKey() >>> 32), b = (int) (long) e.getKey();
+            long larger = Math.max(files.get(a).size(), files.get(b).size());
+            int percent = (int) Math.min(100, e.getValue() * 100 / larger);
+            if (percent >= minSharePercent) pairs.add(new long[]{percent, a, b});
+        }
+        pairs.sort((x, y) -> Long.compare(y[0], x[0]));
+
+        int groupId = 1;
+        for (long[] pair : pairs) {
+            if (cancelled.getAsBoolean()) return;
+            statistics.addDuplicateGroup(2);
+            // je Paar eigene Modelle: eine Datei kann mit mehreren Partnern verschiedene Anteile haben
+            for (int i = 1; i <= 2; i++) {
+                DuplicateSearchModel model = new DuplicateSearchModel(files.get((int) pair[i]), paths, strategy, null);
+                model.setSimilarity((int) pair[0]);
+                listener.duplicate(model, groupId);
+            }
+            groupId++;
+        }
+    }
+
+    private static long pairKey(int a, int b) {
+        return (long) Math.min(a, b) << 32 | Math.max(a, b);
+    }
+}
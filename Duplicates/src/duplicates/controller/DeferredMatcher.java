@@ -0,0 +1,20 @@
+package duplicates.controller;
+
+import duplicates.model.FileEntry;
+
+/**
+ * Abgleich, der jede Datei für sich verarbeitet und erst nach der Traversierung Gruppen
+ * bildet (Bild-, Block-, Textvergleich). Anders als {@link DuplicateMatcher} ist die
+ * Dateigröße dabei kein Vorfilter.
+ */
+interface DeferredMatcher {
+
+    /** true, wenn die Datei verarbeitet werden soll (sonst gar nicht erst einreihen). */
+    boolean accepts(FileEntry entry);
+
+    /** Verarbeitet eine Datei. Darf parallel für verschiedene Dateien aufgerufen werden. */
+    void insert(FileEntry entry);
+
+    /** Bildet die Gruppen und meldet sie. Erst aufrufen, wenn keine {@link #insert} mehr läuft. */
+    void finish();
+}
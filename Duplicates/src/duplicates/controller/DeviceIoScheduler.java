@@ -0,0 +1,200 @@
+package duplicates.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verteilt Lese-/Hash-Aufgaben nach Datenträger ({@link FileStore}).
+ *
+ * Jeder Datenträger bekommt einen eigenen Thread-Pool mit passender Parallelität:
+ * drehende Platten nur wenige Lese-Streams (sonst zerschießen konkurrierende Suchbewegungen
+ * den Durchsatz), SSD/NVMe viele. Alle Datenträger werden gleichzeitig gelesen, sodass sich
+ * der Durchsatz mehrerer Platten addiert.
+ *
+ * Liest eine Aufgabe auch Dateien eines anderen Datenträgers (z. B. beim Byte-Vergleich mit dem
+ * Vertreter einer Gruppe), belegt sie dafür über {@link #acquire(File...)} einen Lese-Stream
+ * dieses Datenträgers; so gilt die Grenze je Datenträger unabhängig davon, welcher Pool liest.
+ *
+ * Die Plattenart wird unter Linux aus /sys/class/block/&lt;gerät&gt;/queue/rotational gelesen;
+ * ist sie nicht ermittelbar (Windows, Netzlaufwerk, tmpfs), gilt die SSD-Einstellung.
+ */
+public class DeviceIoScheduler {
+
+    private final int rotationalStreams;
+    private final int solidStateStreams;
+    private final Executor fallback;
+
+    // Gerät je Ordner (alle Dateien eines Ordners liegen auf demselben Datenträger)
+    private final Map<String, Device> byFolder = new ConcurrentHashMap<>();
+    private final Map<FileStore, Device> byStore = new ConcurrentHashMap<>();
+    private final AtomicInteger deviceCounter = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    /** Ein Datenträger samt eigenem Pool und Lese-Streams. */
+    private static final class Device {
+        final int index; // Reihenfolge beim Belegen mehrerer Datenträger (verhindert Verklemmung)
+        final String name;
+        final Boolean rotational; // null = unbekannt
+        final ExecutorService executor;
+        final Semaphore streams;
+
+        Device(int index, String name, Boolean rotational, ExecutorService executor, int streams) {
+            this.index = index;
+            this.name = name;
+            this.rotational = rotational;
+            this.executor = executor;
+            this.streams = new Semaphore(streams);
+        }
+    }
+
+    /** Belegte Lese-Streams; mit {@link #close()} wieder freigeben (im finally). */
+    public static final class Lease implements AutoCloseable {
+        private final Device[] devices;
+
+        private Lease(Device[] devices) {
+            this.devices = devices;
+        }
+
+        @Override
+        public void close() {
+            for (int i = devices.length - 1; i >= 0; i--) {
+                devices[i].streams.release();
+            }
+        }
+    }
+
+    /**
+     * @param rotationalStreams gleichzeitige Lese-Streams je drehender Platte (mind. 1)
+     * @param solidStateStreams gleichzeitige Lese-Streams je SSD/NVMe bzw. unbekanntem Gerät (mind. 1)
+     * @param fallback          Executor für Dateien, deren Datenträger nicht bestimmbar ist
+     */
+    public DeviceIoScheduler(int rotationalStreams, int solidStateStreams, Executor fallback) {
+        this.rotationalStreams = Math.max(1, rotationalStreams);
+        this.solidStateStreams = Math.max(1, solidStateStreams);
+        this.fallback = fallback;
+    }
+
+    /** Executor des Datenträgers, auf dem die Datei liegt. */
+    public Executor executorFor(File file) {
+        if (shutdown) return fallback;
+        Device device = deviceFor(file);
+        return device != null ? device.executor : fallback;
+    }
+
+    /**
+     * Belegt je Datenträger der Dateien einen Lese-Stream (wartet, bis einer frei ist). Mehrere
+     * Datenträger werden stets in derselben Reihenfolge belegt, daher können sich zwei Aufgaben
+     * nicht gegenseitig blockieren. Dateien ohne bestimmbaren Datenträger sind nicht begrenzt.
+     * Innerhalb einer Lease keine weitere anfordern.
+     */
+    public Lease acquire(File... files) throws InterruptedException {
+        Device[] devices = new Device[files.length];
+        int count = 0;
+        for (File file : files) {
+            Device device = deviceFor(file);
+            if (device != null) devices[count++] = device;
+        }
+        Arrays.sort(devices, 0, count, Comparator.comparingInt(d -> d.index));
+        Device[] held = new Device[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (n > 0 && held[n - 1] == devices[i]) continue; // derselbe Datenträger zählt einmal
+            try {
+                devices[i].streams.acquire();
+            } catch (InterruptedException e) {
+                new Lease(Arrays.copyOf(held, n)).close();
+                throw e;
+            }
+            held[n++] = devices[i];
+        }
+        return new Lease(Arrays.copyOf(held, n));
+    }
+
+    /** Anzahl bisher erkannter Datenträger. */
+    public int getDeviceCount() {
+        return byStore.size();
+    }
+
+    /** Kurze Beschreibung der erkannten Datenträger (für Log/Statuszeile). */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Device d : byStore.values()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(d.name).append(d.rotational == null ? " (?)" : d.rotational ? " (HDD)" : " (SSD)");
+        }
+        return sb.toString();
+    }
+
+    /** Beendet alle Geräte-Pools und unterbricht laufende Lesevorgänge. */
+    public void shutdownNow() {
+        shutdown = true;
+        for (Device d : byStore.values()) {
+            d.executor.shutdownNow();
+        }
+    }
+
+    // --- Interna ---
+
+    private Device deviceFor(File file) {
+        String folder = file.getParent();
+        if (folder == null) return null;
+        return byFolder.computeIfAbsent(folder, f -> deviceOf(file));
+    }
+
+    private Device deviceOf(File file) {
+        FileStore store;
+        try {
+            store = Files.getFileStore(file.toPath());
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+        return byStore.computeIfAbsent(store, s -> {
+            Boolean rotational = isRotational(s);
+            int streams = Boolean.TRUE.equals(rotational) ? rotationalStreams : solidStateStreams;
+            int index = deviceCounter.incrementAndGet();
+            AtomicInteger threadCounter = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(streams, r -> {
+                Thread t = new Thread(r, "Duplicates-IO-" + index + "-" + threadCounter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            return new Device(index, s.name(), rotational, executor, streams);
+        });
+    }
+
+    /**
+     * Drehende Platte? Unter Linux über sysfs: Partitionen haben kein eigenes "queue",
+     * dann zählt die übergeordnete Platte.
+     */
+    static Boolean isRotational(FileStore store) {
+        try {
+            Path dev = Paths.get(store.name());
+            if (!dev.isAbsolute() || !Files.exists(dev)) return null; // tmpfs, Netzlaufwerk, Windows
+            String device = dev.toRealPath().getFileName().toString(); // /dev/mapper/x -> dm-0
+
+            Path sys = Paths.get("/sys/class/block", device);
+            if (!Files.exists(sys)) return null;
+            Path flag = sys.resolve("queue/rotational");
+            if (!Files.exists(flag)) {
+                flag = sys.toRealPath().getParent().resolve("queue/rotational");
+                if (!Files.exists(flag)) return null;
+            }
+            return Files.readString(flag).trim().equals("1");
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
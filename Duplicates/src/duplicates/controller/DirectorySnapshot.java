@@ -0,0 +1,327 @@
+package duplicates.controller;
+
+import duplicates.model.FileEntry;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verzeichnis-Snapshot für inkrementelle Suchläufe ("cache/snapshot.dat").
+ *
+ * Pro Verzeichnis werden Änderungszeit, Anzahl Einträge sowie die Namen der Dateien und
+ * Unterordner gespeichert. Ist die Änderungszeit beim nächsten Lauf unverändert, wird das
+ * Verzeichnis nicht erneut gelistet, sondern aus dem Snapshot bedient.
+ *
+ * Hinweis: Die Änderungszeit eines Ordners ändert sich nur, wenn Einträge hinzukommen,
+ * wegfallen oder umbenannt werden – nicht beim Überschreiben einer Datei. Wiederverwendet
+ * werden daher nur die Namen; Größe und Datum jeder Datei werden weiterhin frisch gelesen
+ * (ein stat je Datei, wie beim normalen Listen).
+ *
+ * Die Namen eines Ordners liegen als ein Block (je Name 2 Byte Länge + UTF-8, wie im
+ * {@link duplicates.model.PathDictionary}) im Speicher und werden erst beim Wiederverwenden
+ * dekodiert. Geänderte Ordner werden beim {@link #save()} als Journal angehängt; verdichtet wird
+ * erst, wenn die Datei überwiegend aus überholten Datensätzen besteht. Ordner, die ein
+ * vollständiger Lauf unter seinen Startordnern nicht mehr angetroffen hat, entfernt
+ * {@link #prune(List, long)}.
+ */
+public class DirectorySnapshot {
+
+    private static final String SNAPSHOT_PATH = "cache/snapshot.dat";
+    private static final int MAGIC = 0x44534e32; // "DSN2" (Namen als UTF-8-Block, Journal)
+
+    /** Datensatz im Journal: Ordner entfernt. */
+    private static final int REMOVED = -1;
+
+    /**
+     * Ordner, die kurz vor/während des Listens geändert wurden, sind nicht vertrauenswürdig
+     * (grobe Zeitauflösung z. B. bei FAT: 2 s).
+     */
+    private static final long RACY_WINDOW_MS = 2000;
+
+    private static DirectorySnapshot instance;
+
+    private final File file;
+    private final Map<String, DirEntry> dirs = new ConcurrentHashMap<>();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong relisted = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<String> changed = ConcurrentHashMap.newKeySet(); // noch nicht gespeichert
+    private long recordsInFile;
+    private boolean rewrite = true; // Datei fehlt oder ist unbrauchbar -> komplett schreiben
+
+    /** Gespeicherter Zustand eines Verzeichnisses. */
+    public static final class DirEntry {
+        final long modified;
+        final long listedAt;
+        final int dirCount;
+        final int fileCount;
+        final byte[] names; // erst die Unterordner, dann die Dateien
+        volatile long seen; // Generation des letzten Laufs, der den Ordner gelistet hat
+
+        DirEntry(long modified, long listedAt, int dirCount, int fileCount, byte[] names) {
+            this.modified = modified;
+            this.listedAt = listedAt;
+            this.dirCount = dirCount;
+            this.fileCount = fileCount;
+            this.names = names;
+        }
+
+        /** Anzahl Einträge (Dateien + Unterordner). */
+        public int getEntryCount() {
+            return dirCount + fileCount;
+        }
+
+        public int getFileCount() {
+            return fileCount;
+        }
+    }
+
+    private DirectorySnapshot(File file) {
+        this.file = file;
+    }
+
+    /** Gemeinsamer Snapshot für Datei- und Duplikatsuche (lädt beim ersten Zugriff). */
+    public static synchronized DirectorySnapshot getDefault() {
+        if (instance == null) {
+            instance = new DirectorySnapshot(new File(SNAPSHOT_PATH));
+            instance.load();
+        }
+        return instance;
+    }
+
+    /**
+     * Beginnt einen Suchlauf. Die Rückgabe an {@link #prune(List, long)} übergeben, wenn der
+     * Lauf vollständig war.
+     */
+    public long startScan() {
+        return generation.incrementAndGet();
+    }
+
+    /**
+     * Listet ein Verzeichnis – aus dem Snapshot, wenn es seitdem unverändert ist,
+     * sonst frisch vom Dateisystem (und aktualisiert den Snapshot). Wie
+     * {@link DirectoryWalker#list(File, DirectoryWalker.Sink, DirectoryWalker.Sink)}
+     * gehen Dateien mit ihren Attributen an {@code files}, Unterordner an {@code dirs}.
+     *
+     * @return false, wenn das Verzeichnis nicht lesbar ist
+     */
+    public boolean list(File dir, DirectoryWalker.Sink<FileEntry> files, DirectoryWalker.Sink<File> dirs)
+            throws InterruptedException {
+        String key = dir.getAbsolutePath();
+        long modified = dir.lastModified();
+        DirEntry e = this.dirs.get(key);
+
+        if (e != null && modified != 0L && e.modified == modified
+                && modified < e.listedAt - RACY_WINDOW_MS) {
+            reused.incrementAndGet();
+            e.seen = generation.get();
+            int pos = 0;
+            for (int i = 0; i < e.dirCount; i++) {
+                dirs.accept(new File(dir, name(e.names, pos)));
+                pos = next(e.names, pos);
+            }
+            for (int i = 0; i < e.fileCount; i++) {
+                FileEntry entry = FileEntry.read(new File(dir, name(e.names, pos)));
+                if (entry != null) files.accept(entry);
+                pos = next(e.names, pos);
+            }
+            return true;
+        }
+
+        long listedAt = System.currentTimeMillis();
+        List<String> fileNames = new ArrayList<>();
+        List<String> dirNames = new ArrayList<>();
+        boolean complete = DirectoryWalker.list(dir,
+                entry -> {
+                    fileNames.add(entry.file().getName());
+                    files.accept(entry);
+                },
+                sub -> {
+                    dirNames.add(sub.getName());
+                    dirs.accept(sub);
+                });
+        if (!complete) return false;
+
+        relisted.incrementAndGet();
+        byte[] names = encode(dirNames, fileNames);
+        if (names == null) return true; // überlanger Name: Ordner nicht merken
+        DirEntry fresh = new DirEntry(modified, listedAt, dirNames.size(), fileNames.size(), names);
+        fresh.seen = generation.get();
+        this.dirs.put(key, fresh);
+        changed.add(key);
+        return true;
+    }
+
+    /**
+     * Entfernt Ordner unter den Startordnern, die der Lauf seit {@code scan} nicht gelistet hat
+     * (gelöscht, umbenannt oder nicht mehr lesbar). Nur nach einem vollständigen, rekursiven
+     * Lauf aufrufen; Ordner, die ein gleichzeitiger Lauf gelistet hat, bleiben erhalten.
+     */
+    public void prune(List<String> roots, long scan) {
+        List<String> paths = new ArrayList<>(roots.size());
+        for (String root : roots) paths.add(new File(root).getAbsolutePath());
+        for (Map.Entry<String, DirEntry> en : dirs.entrySet()) {
+            if (en.getValue().seen >= scan) continue;
+            String key = en.getKey();
+            for (String path : paths) {
+                if (isWithin(key, path)) {
+                    if (dirs.remove(key, en.getValue())) changed.add(key);
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Gespeicherter Eintrag eines Verzeichnisses (oder null). */
+    public DirEntry get(File dir) {
+        return dirs.get(dir.getAbsolutePath());
+    }
+
+    /** Zähler seit dem letzten {@link #resetCounters()}: aus dem Snapshot bediente Ordner. */
+    public long getReusedCount() {
+        return reused.get();
+    }
+
+    /** Zähler seit dem letzten {@link #resetCounters()}: neu gelistete Ordner. */
+    public long getRelistedCount() {
+        return relisted.get();
+    }
+
+    public void resetCounters() {
+        reused.set(0);
+        relisted.set(0);
+    }
+
+    /**
+     * Hängt geänderte und entfernte Ordner an die Datei an (bzw. verdichtet sie, wenn sie
+     * überwiegend aus überholten Datensätzen besteht). Nach jeder Suche aufrufen.
+     */
+    public synchronized void save() {
+        if (changed.isEmpty()) return;
+        List<String> keys = new ArrayList<>(changed);
+        changed.removeAll(keys); // spätere Änderungen derselben Ordner bleiben vorgemerkt
+        try {
+            File parent = file.getParentFile();
+            if (parent != null) parent.mkdirs();
+            if (rewrite || recordsInFile + keys.size() > 2L * dirs.size()) {
+                compact();
+            } else {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+                    for (String key : keys) writeRecord(out, key, dirs.get(key));
+                }
+                recordsInFile += keys.size();
+            }
+        } catch (IOException e) {
+            changed.addAll(keys);
+            rewrite = true; // angefangener Datensatz -> beim nächsten Mal sauber neu schreiben
+            System.err.println("Verzeichnis-Snapshot konnte nicht gespeichert werden: " + e.getMessage());
+        }
+    }
+
+    // --- Interna ---
+
+    private void load() {
+        if (!file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) return; // altes Format -> wird neu geschrieben
+            while (true) {
+                String key;
+                try {
+                    key = in.readUTF();
+                } catch (EOFException eof) {
+                    break;
+                }
+                long modified = in.readLong();
+                long listedAt = in.readLong();
+                int dirCount = in.readInt();
+                recordsInFile++;
+                if (dirCount == REMOVED) {
+                    dirs.remove(key);
+                    continue;
+                }
+                int fileCount = in.readInt();
+                byte[] names = new byte[in.readInt()];
+                in.readFully(names);
+                dirs.put(key, new DirEntry(modified, listedAt, dirCount, fileCount, names)); // spätere gewinnen
+            }
+            rewrite = false;
+        } catch (IOException e) {
+            // unvollständiger Snapshot -> schlimmstenfalls wird mehr neu gelistet
+            System.err.println("Verzeichnis-Snapshot unvollständig: " + e.getMessage());
+        }
+    }
+
+    private void compact() throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        long records = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp, false)))) {
+            out.writeInt(MAGIC);
+            for (Map.Entry<String, DirEntry> en : dirs.entrySet()) {
+                writeRecord(out, en.getKey(), en.getValue());
+                records++;
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        recordsInFile = records;
+        rewrite = false;
+    }
+
+    /** Ein Datensatz; {@code e == null} vermerkt einen entfernten Ordner. */
+    private static void writeRecord(DataOutputStream out, String key, DirEntry e) throws IOException {
+        out.writeUTF(key);
+        if (e == null) {
+            out.writeLong(0L);
+            out.writeLong(0L);
+            out.writeInt(REMOVED);
+            return;
+        }
+        out.writeLong(e.modified);
+        out.writeLong(e.listedAt);
+        out.writeInt(e.dirCount);
+        out.writeInt(e.fileCount);
+        out.writeInt(e.names.length);
+        out.write(e.names);
+    }
+
+    /** Namen als ein Block (je 2 Byte Länge + UTF-8); null, wenn ein Name nicht hineinpasst. */
+    private static byte[] encode(List<String> dirNames, List<String> fileNames) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (List<String> list : List.of(dirNames, fileNames)) {
+            for (String n : list) {
+                byte[] utf8 = n.getBytes(StandardCharsets.UTF_8);
+                if (utf8.length > 0xFFFF) return null;
+                out.write(utf8.length >>> 8);
+                out.write(utf8.length);
+                out.write(utf8, 0, utf8.length);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** true, wenn {@code dir} der Ordner {@code root} selbst oder einer seiner Unterordner ist. */
+    private static boolean isWithin(String dir, String root) {
+        if (!dir.startsWith(root)) return false;
+        return dir.length() == root.length() || root.endsWith(File.separator)
+                || dir.charAt(root.length()) == File.separatorChar;
+    }
+
+    private static String name(byte[] names, int pos) {
+        return new String(names, pos + 2, length(names, pos), StandardCharsets.UTF_8);
+    }
+
+    private static int next(byte[] names, int pos) {
+        return pos + 2 + length(names, pos);
+    }
+
+    private static int length(byte[] names, int pos) {
+        return (names[pos] & 0xFF) << 8 | (names[pos + 1] & 0xFF);
+    }
+}
@@ -0,0 +1,60 @@
+package duplicates.controller;
+
+import duplicates.model.FileEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Listet Verzeichnisse über {@link Files#newDirectoryStream(Path)}.
+ *
+ * Einträge werden gestreamt statt als {@code File[]} gesammelt (wichtig bei Ordnern mit
+ * Millionen Einträgen), und jeder Eintrag wird genau einmal gestat't: dieselben
+ * {@link BasicFileAttributes} entscheiden Datei/Ordner und landen als {@link FileEntry}
+ * beim Aufrufer. Symbolische Links werden wie bisher bei {@code File.isFile()} verfolgt.
+ */
+public final class DirectoryWalker {
+
+    /** Empfänger für Einträge; darf bei Abbruch eine InterruptedException werfen. */
+    public interface Sink<T> {
+        void accept(T item) throws InterruptedException;
+    }
+
+    /** Sink für Unterordner, wenn nicht rekursiv gesucht wird. */
+    public static final Sink<File> IGNORE_DIRS = dir -> { };
+
+    private DirectoryWalker() {
+    }
+
+    /**
+     * Listet ein Verzeichnis und meldet jede reguläre Datei an {@code files} und jeden
+     * Unterordner an {@code dirs}. Einträge, deren Attribute nicht lesbar sind, werden übersprungen.
+     *
+     * @return false, wenn das Verzeichnis nicht (vollständig) gelistet werden konnte
+     */
+    public static boolean list(File dir, Sink<FileEntry> files, Sink<File> dirs) throws InterruptedException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir.toPath())) {
+            for (Path p : stream) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(p, BasicFileAttributes.class);
+                } catch (IOException | SecurityException e) {
+                    continue; // verschwunden, defekter Link o. ä.
+                }
+                if (attrs.isDirectory()) {
+                    dirs.accept(p.toFile());
+                } else if (attrs.isRegularFile()) {
+                    files.accept(FileEntry.of(p.toFile(), attrs));
+                }
+            }
+            return true;
+        } catch (IOException | DirectoryIteratorException | SecurityException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package duplicates.controller;
+
+import duplicates.model.Digest;
+import duplicates.model.DuplicateSearchModel;
+import duplicates.model.FileEntry;
+import duplicates.model.PathDictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Inkrementeller Abgleich für die Streaming-Suche: Dateien kommen einzeln an, während die
+ * Traversierung noch läuft, und werden sofort in einen Baum je Dateigröße einsortiert:
+ * Größe -> Kopfblock -> Endblock -> Inhaltsklasse (Byte-Vergleich bzw. voller Hash).
+ *
+ * Jede Stufe wird erst berechnet, wenn ein Knoten ein zweites Mitglied bekommt; eine Datei,
+ * die allein in ihrer Größe bleibt, wird nie geöffnet. Sobald eine Inhaltsklasse zwei Dateien
+ * hat, ist sie eine Duplikat-Gruppe und wird gemeldet; spätere Treffer erhalten dieselbe Gruppen-ID.
+ *
+ * Thread-sicher: die Sperre je Größe schützt nur den Baum, gelesen und verglichen wird außerhalb.
+ * Eine Datei merkt sich dazu die Inhaltsklassen ihres Blatts, vergleicht ohne Sperre und prüft
+ * beim Einsortieren nur noch Klassen nach, die inzwischen hinzugekommen sind (Klassen und ihre
+ * Vertreter ändern sich nie). Jeder Lesezugriff belegt einen Stream des Datenträgers der
+ * gelesenen Datei ({@link DeviceIoScheduler#acquire}), auch wenn ein anderer Pool liest.
+ * Das {@link File} einer Datei wird je Task einmal bestimmt (aus dem {@link FileEntry}) und
+ * durchgereicht, statt es für jeden Lesezugriff aus dem Pfad-Wörterbuch neu zu bauen.
+ */
+class DuplicateMatcher {
+
+    /** Knoten bis zu dieser Mitgliederzahl vergleichen Byte für Byte statt zu hashen. */
+    private static final int COMPARE_MAX_GROUP = 3;
+
+    /** Empfänger der Meldungen (wird aus Worker-Threads aufgerufen). */
+    interface Listener {
+        void duplicate(DuplicateSearchModel model, int groupId);
+
+        void hardlink(DuplicateSearchModel model, int linkSetId);
+    }
+
+    private final HashStrategy strategy;
+    private final HashCache cache;
+    private final PathDictionary paths;
+    private final DeviceIoScheduler io;
+    private final boolean confirm;
+    private final boolean verify;
+    private final DuplicateSearchStatistics statistics;
+    private final BooleanSupplier cancelled;
+    private final Listener listener;
+
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGroupId = new AtomicInteger(1);
+    private final AtomicInteger nextLinkSetId = new AtomicInteger(1);
+
+    DuplicateMatcher(HashStrategy strategy, HashCache cache, PathDictionary paths, DeviceIoScheduler io,
+                     boolean confirm, boolean verify, DuplicateSearchStatistics statistics,
+                     BooleanSupplier cancelled, Listener listener) {
+        this.strategy = strategy;
+        this.cache = cache;
+        this.paths = paths;
+        this.io = io;
+        this.confirm = confirm;
+        this.verify = verify;
+        this.statistics = statistics;
+        this.cancelled = cancelled;
+        this.listener = listener;
+    }
+
+    /** Alle Dateien einer Größe. Die erste wird nur als Eintrag gehalten, bis eine zweite kommt. */
+    static final class Bucket {
+        final long size;
+        int count;
+        FileEntry pending;
+        Map<Digest, Node> heads;
+        Map<Object, List<DuplicateSearchModel>> byFileKey; // Hardlink-Erkennung
+        Map<Object, Integer> linkSetIds;
+
+        Bucket(long size) {
+            this.size = size;
+        }
+    }
+
+    /** Knoten im Baum: innere Knoten verzweigen nach Digest, Blätter halten Inhaltsklassen. */
+    private static final class Node {
+        int count;
+        Map<Digest, Node> children;
+        List<ContentClass> classes;
+        boolean hashMode;
+    }
+
+    /** Dateien mit nachweislich gleichem Inhalt; ab zwei Mitgliedern eine Gruppe. */
+    private static final class ContentClass {
+        final DuplicateSearchModel representative; // erstes Mitglied, auch ohne Sperre lesbar
+        final File representativeFile;
+        final List<DuplicateSearchModel> members = new ArrayList<>(2);
+        int groupId;
+        boolean confirmRejected; // gleicher schneller Hash, aber SHA-256 verschieden
+        volatile boolean unreadable; // Vertreter ließ sich beim Vergleich nicht lesen
+
+        ContentClass(DuplicateSearchModel first, File file) {
+            representative = first;
+            representativeFile = file;
+            members.add(first);
+        }
+    }
+
+    /**
+     * Meldet eine gefilterte Datei an. Ist sie die erste ihrer Größe, wird sie nur vorgemerkt
+     * (Rückgabe null). Sonst muss der Aufrufer {@link #insert(Bucket, FileEntry)} ausführen,
+     * üblicherweise als Task auf dem Pool des Datenträgers.
+     */
+    Bucket offer(FileEntry entry) {
+        Bucket bucket = buckets.computeIfAbsent(entry.size(), Bucket::new);
+        synchronized (bucket) {
+            bucket.count++;
+            if (bucket.count == 1) {
+                bucket.pending = entry;
+                return null;
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Sortiert eine Datei in den Baum ihrer Größe ein (liest dabei Kopf-/Endblock und ggf.
+     * den Inhalt). Darf parallel für verschiedene Dateien aufgerufen werden.
+     */
+    void insert(Bucket bucket, FileEntry entry) {
+        if (cancelled.getAsBoolean()) return;
+        DuplicateSearchModel model = new DuplicateSearchModel(entry, paths, strategy, cache);
+
+        // 1) die vorgemerkte erste Datei wird jetzt gebraucht
+        FileEntry pending;
+        synchronized (bucket) {
+            pending = bucket.pending;
+            bucket.pending = null;
+        }
+
+        // 2) Hardlinks: weiterer Name einer bereits bekannten Datei -> nicht nochmal lesen;
+        //    sonst einsortieren (liest nur außerhalb der Sperre)
+        try {
+            if (pending != null) {
+                DuplicateSearchModel first = new DuplicateSearchModel(pending, paths, strategy, cache);
+                if (registerFileKey(bucket, first, pending.file())) place(bucket, first, pending.file());
+            }
+            if (registerFileKey(bucket, model, entry.file())) place(bucket, model, entry.file());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Suche abgebrochen
+        }
+    }
+
+    /**
+     * Zähler für Dateien, die am Ende allein geblieben sind (je Stufe, in der sie ausgeschieden sind).
+     * Erst aufrufen, wenn keine {@link #insert} mehr läuft.
+     */
+    void finish() {
+        for (Bucket bucket : buckets.values()) {
+            if (bucket.count < 2 || bucket.heads == null) {
+                statistics.addEliminatedBySize(bucket.count < 2 ? bucket.count : 0);
+                continue;
+            }
+            for (Node head : bucket.heads.values()) {
+                if (head.count == 1) {
+                    statistics.addEliminatedByHead(1);
+                } else if (head.children != null) {
+                    for (Node tail : head.children.values()) {
+                        if (tail.count == 1) {
+                            statistics.addEliminatedByTail(1);
+                        } else {
+                            countLeaf(tail);
+                        }
+                    }
+                } else {
+                    countLeaf(head);
+                }
+            }
+        }
+    }
+
+    // --- Interna ---
+
+    private void countLeaf(Node leaf) {
+        if (leaf.classes == null) return;
+        for (ContentClass c : leaf.classes) {
+            if (c.members.size() == 1) {
+                if (c.unreadable) {
+                    statistics.addUnreadable(1);
+                } else if (c.confirmRejected) {
+                    statistics.addEliminatedByConfirm(1);
+                } else if (leaf.hashMode) {
+                    statistics.addEliminatedByFullHash(1);
+                } else {
+                    statistics.addEliminatedByCompare(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merkt sich den fileKey. false = Datei ist bereits bekannt (Hardlink bzw. derselbe Pfad
+     * über einen anderen Weg) und wird nicht weiter verglichen.
+     * Kanonische Pfade (Dateisystemzugriff) werden nur bei gleichem fileKey und außerhalb der
+     * Sperre bestimmt; kommen währenddessen Namen hinzu, werden nur diese noch geprüft.
+     */
+    private boolean registerFileKey(Bucket bucket, DuplicateSearchModel model, File file) {
+        Object key = model.getFileKey();
+        if (key == null) return true; // z. B. Windows: keine Inode-Information
+
+        String path = null;
+        int checked = 0;
+        while (true) {
+            List<DuplicateSearchModel> known;
+            synchronized (bucket) {
+                if (bucket.byFileKey == null) bucket.byFileKey = new HashMap<>();
+                List<DuplicateSearchModel> names = bucket.byFileKey.get(key);
+                if (names == null) {
+                    names = new ArrayList<>(1);
+                    names.add(model);
+                    bucket.byFileKey.put(key, names);
+                    return true;
+                }
+                if (names.size() == checked) {
+                    names.add(model);
+                    reportHardlink(bucket, key, names.get(0), model);
+                    return false;
+                }
+                known = List.copyOf(names);
+            }
+
+            if (path == null) path = canonicalPath(file);
+            for (; checked < known.size(); checked++) {
+                if (canonicalPath(known.get(checked).getFile()).equals(path)) return false; // derselbe Pfad
+            }
+        }
+    }
+
+    /** Meldet einen weiteren Namen einer Datei (unter der Sperre). */
+    private void reportHardlink(Bucket bucket, Object key, DuplicateSearchModel first, DuplicateSearchModel model) {
+        if (bucket.linkSetIds == null) bucket.linkSetIds = new HashMap<>();
+        Integer id = bucket.linkSetIds.get(key);
+        if (id == null) {
+            id = nextLinkSetId.getAndIncrement();
+            bucket.linkSetIds.put(key, id);
+            statistics.addHardlinkSet(2);
+            listener.hardlink(first, id);
+        } else {
+            statistics.addHardlinkFile();
+        }
+        listener.hardlink(model, id);
+    }
+
+    /**
+     * Sortiert eine Datei ein: Kopf-/Endblock lesen, unter der Sperre das Blatt belegen und seine
+     * Klassen merken, ohne Sperre vergleichen bzw. hashen, dann unter der Sperre zuordnen. Sind
+     * inzwischen Klassen hinzugekommen, werden nur diese noch verglichen.
+     */
+    private void place(Bucket bucket, DuplicateSearchModel model, File file) throws InterruptedException {
+        boolean probeTail = bucket.size > DuplicateSearchModel.PROBE_BLOCK_SIZE;
+        DeviceIoScheduler.Lease lease = io.acquire(file);
+        try {
+            model.getHeadHash(file);
+            if (probeTail) model.getTailHash(file);
+        } finally {
+            lease.close();
+        }
+        if (model.getHeadHash().isUnreadable() || (probeTail && model.getTailHash().isUnreadable())) {
+            statistics.addUnreadable(1);
+            return;
+        }
+
+        Node leaf;
+        List<ContentClass> known;
+        boolean hashMode;
+        synchronized (bucket) {
+            leaf = claimLeaf(bucket, model);
+            known = List.copyOf(leaf.classes);
+            hashMode = leaf.hashMode;
+        }
+
+        int checked = 0;
+        boolean confirmRejected = false;
+        while (true) {
+            boolean unreadable = hashMode && fullHash(model, file).isUnreadable();
+            ContentClass match = null;
+            for (; checked < known.size() && match == null && !unreadable; checked++) {
+                if (cancelled.getAsBoolean()) return;
+                ContentClass c = known.get(checked);
+                int result = sameContent(c, model, file, hashMode);
+                confirmRejected |= result == CONFIRM_REJECTED;
+                unreadable = result == UNREADABLE;
+                if (result == SAME) match = c;
+            }
+            if (unreadable) {
+                synchronized (bucket) {
+                    releaseLeaf(bucket, model, leaf);
+                }
+                statistics.addUnreadable(1);
+                return;
+            }
+            synchronized (bucket) {
+                if (match != null) {
+                    join(match, model);
+                    return;
+                }
+                if (leaf.classes.size() == checked) {
+                    ContentClass c = new ContentClass(model, file);
+                    c.confirmRejected = confirmRejected;
+                    leaf.classes.add(c);
+                    return;
+                }
+                // während des Vergleichs neu entstandene Klassen noch prüfen
+                known = List.copyOf(leaf.classes);
+                hashMode = leaf.hashMode;
+            }
+        }
+    }
+
+    /** Blatt der Datei anlegen bzw. finden und sie dort (und im Kopfknoten) mitzählen. */
+    private static Node claimLeaf(Bucket bucket, DuplicateSearchModel model) {
+        if (bucket.heads == null) bucket.heads = new HashMap<>();
+        Node node = bucket.heads.computeIfAbsent(model.getHeadHash(), d -> new Node());
+        if (bucket.size > DuplicateSearchModel.PROBE_BLOCK_SIZE) {
+            node.count++;
+            if (node.children == null) node.children = new HashMap<>();
+            node = node.children.computeIfAbsent(model.getTailHash(), d -> new Node());
+        }
+        if (node.classes == null) node.classes = new ArrayList<>(1);
+        // Kleine Knoten Byte für Byte vergleichen, ab COMPARE_MAX_GROUP Mitgliedern hashen
+        if (node.count >= COMPARE_MAX_GROUP) node.hashMode = true;
+        node.count++;
+        return node;
+    }
+
+    /** Nimmt die Zählung aus {@link #claimLeaf} zurück, wenn die Datei doch unlesbar ist. */
+    private static void releaseLeaf(Bucket bucket, DuplicateSearchModel model, Node leaf) {
+        if (bucket.size > DuplicateSearchModel.PROBE_BLOCK_SIZE) {
+            bucket.heads.get(model.getHeadHash()).count--;
+        }
+        leaf.count--;
+    }
+
+    /** Nimmt die Datei in eine Inhaltsklasse auf und meldet sie (unter der Sperre). */
+    private void join(ContentClass c, DuplicateSearchModel model) {
+        c.members.add(model);
+        if (c.groupId == 0) {
+            c.groupId = nextGroupId.getAndIncrement();
+            statistics.addDuplicateGroup(2);
+            listener.duplicate(c.representative, c.groupId);
+        } else {
+            statistics.addDuplicateFile();
+        }
+        listener.duplicate(model, c.groupId);
+    }
+
+    private static final int DIFFERENT = 0;
+    private static final int SAME = 1;
+    private static final int CONFIRM_REJECTED = 2;
+    private static final int UNREADABLE = 3;
+
+    /**
+     * Vergleicht mit dem Vertreter einer Inhaltsklasse: SAME, DIFFERENT, CONFIRM_REJECTED oder
+     * UNREADABLE (die neue Datei ließ sich nicht lesen). Ist der Vertreter unlesbar, wird die
+     * Klasse markiert und DIFFERENT geliefert.
+     */
+    private int sameContent(ContentClass c, DuplicateSearchModel model, File file, boolean hashMode)
+            throws InterruptedException {
+        DuplicateSearchModel rep = c.representative;
+        File repFile = c.representativeFile;
+        if (!hashMode) {
+            return compare(c, model, file);
+        }
+        Digest repHash = fullHash(rep, repFile);
+        if (repHash.isUnreadable()) {
+            c.unreadable = true;
+            return DIFFERENT;
+        }
+        if (!repHash.equals(fullHash(model, file))) return DIFFERENT;
+        // Schneller Hash ist nicht kollisionsresistent -> auf Wunsch per SHA-256 bestätigen
+        if (confirm) {
+            Digest repConfirm = confirmHash(rep, repFile);
+            Digest modelConfirm = confirmHash(model, file);
+            if (modelConfirm.isUnreadable()) return UNREADABLE;
+            if (repConfirm.isUnreadable()) {
+                c.unreadable = true;
+                return DIFFERENT;
+            }
+            if (!repConfirm.equals(modelConfirm)) return CONFIRM_REJECTED;
+        }
+        // Kollisionssicher: Hash-Treffer zusätzlich Byte für Byte prüfen
+        return verify ? compare(c, model, file) : SAME;
+    }
+
+    /** Byte-Vergleich mit dem Vertreter: SAME, DIFFERENT oder UNREADABLE (wie {@link #sameContent}). */
+    private int compare(ContentClass c, DuplicateSearchModel model, File file) throws InterruptedException {
+        File repFile = c.representativeFile;
+        List<File> unreadable = new ArrayList<>(2);
+        boolean same;
+        DeviceIoScheduler.Lease lease = io.acquire(repFile, file);
+        try {
+            same = !FileContentComparator.partition(List.of(repFile, file), model.getFileSizeBytes(),
+                    cancelled, unreadable::add).isEmpty();
+        } finally {
+            lease.close();
+        }
+        if (same) {
+            c.representative.markContentVerified();
+            model.markContentVerified();
+            return SAME;
+        }
+        if (unreadable.contains(repFile)) c.unreadable = true;
+        return unreadable.contains(file) ? UNREADABLE : DIFFERENT;
+    }
+
+    /** Voller Hash; zählt beim ersten Abruf Cache-Treffer und -Fehlschläge. */
+    private Digest fullHash(DuplicateSearchModel model, File file) throws InterruptedException {
+        if (model.hasFileHash()) return model.getFileHash();
+        DeviceIoScheduler.Lease lease = io.acquire(file);
+        try {
+            synchronized (model) { // gleichzeitige Abrufe: nur einer hasht und zählt
+                boolean known = model.hasFileHash();
+                Digest hash = model.getFileHash(file);
+                if (!known) {
+                    statistics.addCacheLookup(model.isFileHashCached());
+                }
+                return hash;
+            }
+        } finally {
+            lease.close();
+        }
+    }
+
+    private Digest confirmHash(DuplicateSearchModel model, File file) throws InterruptedException {
+        DeviceIoScheduler.Lease lease = io.acquire(file);
+        try {
+            return model.getConfirmHash(file);
+        } finally {
+            lease.close();
+        }
+    }
+
+    private static String canonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package duplicates.controller;
+
+import duplicates.model.DuplicateSearchModel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binäre Ergebnisdatei der Duplikatsuche, eine je Suchsitzung unter "results/" (Name siehe
+ * {@link #newSessionFile()}), kompakter Ersatz für das XML bei großen Läufen. XML gibt es
+ * weiterhin per {@link XMLController#exportDuplicateResults}.
+ *
+ * Aufbau:
+ * <pre>
+ *   Kopf     MAGIC, VERSION, Zeitstempel
+ *   Zeilen   je Datei {@link #ROW_SIZE} Byte fester Breite: Gruppe, Ähnlichkeit, geprüft, Größe,
+ *            Erstellt/Geändert (Epochentag) und Offsets in den Textbereich für Name,
+ *            Verzeichnis, Typ und Hash
+ *   Texte    Länge + UTF-8; Verzeichnisse und Typen stehen je Wert nur einmal darin
+ *            (Wörterbuch), gleiche Hashes aufeinanderfolgender Zeilen ebenso
+ *   Gruppen  je Gruppe ID, Anzahl und Beginn in der Zeilenfolge, nach ID sortiert
+ *   Folge    Zeilennummern nach Gruppe geordnet (Mitglieder kommen während der Suche verstreut)
+ *   Fuß      Offsets der Abschnitte, Anzahlen, MAGIC
+ * </pre>
+ * Ein {@link Reader} liest nur Kopf und Fuß und springt von dort direkt zu Gruppe N.
+ */
+public final class DuplicateResultStore {
+
+    private static final int MAGIC = 0x44535231; // "DSR1"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int ROW_SIZE = 56;
+    private static final int GROUP_SIZE = 16;
+    private static final int FOOTER_SIZE = 40;
+
+    /** Kein Datum (Epochentag). */
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    public static final String RESULTS_DIR = "results";
+    public static final String EXTENSION = ".dsr";
+    private static final DateTimeFormatter SESSION_FMT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private DuplicateResultStore() {
+    }
+
+    /**
+     * Neue, noch leere Ergebnisdatei je Suchsitzung ("results/duplicates-<Zeitpunkt>-<n>.dsr"),
+     * damit gleichzeitige Suchfenster sich nicht gegenseitig überschreiben.
+     */
+    public static File newSessionFile() throws IOException {
+        File dir = new File(RESULTS_DIR);
+        dir.mkdirs();
+        String stamp = LocalDateTime.now().format(SESSION_FMT);
+        for (int n = 1; ; n++) {
+            File file = new File(dir, "duplicates-" + stamp + "-" + n + EXTENSION);
+            if (file.createNewFile()) return file; // reserviert den Namen, auch prozessübergreifend
+        }
+    }
+
+    /** Eine gespeicherte Ergebniszeile. */
+    public static final class Record {
+        public int groupId;
+        public String name;
+        public String path;
+        public long sizeBytes;
+        public String type;
+        public LocalDate created;
+        public LocalDate modified;
+        public String hash;
+        public boolean verified;
+        public int similarity;
+    }
+
+    // ========================================================================
+    // ========== Schreiben ===================================================
+    // ========================================================================
+
+    /**
+     * Schreibt Zeilen als Strom; Texte gehen in eine Nebendatei, die beim {@link #close()}
+     * zusammen mit dem Gruppenindex angehängt wird. Im Speicher bleiben nur die Gruppe je Zeile
+     * und das Wörterbuch der Verzeichnisse. Thread-sicher.
+     */
+    public static final class Writer implements Closeable {
+
+        /** So viele zuletzt geschriebene Hashes werden wiederverwendet. */
+        private static final int RECENT_HASHES = 4096;
+
+        private final File file;
+        private final File textFile;
+        private final DataOutputStream rows;
+        private final DataOutputStream texts;
+        private long textSize;
+        private int[] groups = new int[1024];
+        private int rowCount;
+        private boolean closed;
+
+        private final Map<String, Long> dictionary = new HashMap<>(); // Verzeichnisse, Typen
+        private final Map<String, Long> recentHashes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > RECENT_HASHES;
+            }
+        };
+
+        public Writer(File file) throws IOException {
+            this.file = file;
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) parent.mkdirs();
+            this.textFile = new File(file.getPath() + ".texts");
+            this.rows = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, false), 1 << 16));
+            this.texts = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(textFile, false), 1 << 16));
+            rows.writeInt(MAGIC);
+            rows.writeInt(VERSION);
+            rows.writeLong(System.currentTimeMillis());
+        }
+
+        public synchronized void append(DuplicateSearchModel m, int groupId) throws IOException {
+            if (closed) return;
+            if (rowCount == groups.length) groups = Arrays.copyOf(groups, groups.length * 2);
+            groups[rowCount++] = groupId;
+
+            rows.writeInt(groupId);
+            rows.writeByte(Math.max(0, Math.min(100, m.getSimilarity())));
+            rows.writeByte(m.isContentVerified() ? 1 : 0);
+            rows.writeShort(0);
+            rows.writeLong(m.getFileSizeBytes());
+            rows.writeInt(epochDay(m.getCreationDate()));
+            rows.writeInt(epochDay(m.getModificationDate()));
+            rows.writeLong(text(m.getFileName()));
+            try {
+                rows.writeLong(dictionary.computeIfAbsent(m.getParentPath(), this::textUnchecked));
+                rows.writeLong(dictionary.computeIfAbsent(m.getFileType() != null ? m.getFileType() : "", this::textUnchecked));
+                rows.writeLong(recentHashes.computeIfAbsent(m.getDisplayHash(), this::textUnchecked));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        /** Hängt Texte und Gruppenindex an und schließt die Datei. */
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                texts.close();
+                long textOffset = HEADER_SIZE + (long) rowCount * ROW_SIZE;
+                try (InputStream in = new FileInputStream(textFile)) {
+                    in.transferTo(rows);
+                }
+
+                // Zählsortierung nach Gruppen-ID: Beginn je Gruppe, dann die Zeilenfolge
+                int maxGroup = 0;
+                for (int i = 0; i < rowCount; i++) maxGroup = Math.max(maxGroup, groups[i]);
+                int[] start = new int[maxGroup + 2];
+                for (int i = 0; i < rowCount; i++) start[Math.max(0, groups[i]) + 1]++;
+                int groupCount = 0;
+                for (int g = 0; g <= maxGroup; g++) {
+                    if (start[g + 1] > 0) groupCount++;
+                    start[g + 1] += start[g];
+                }
+
+                long groupOffset = textOffset + textSize;
+                for (int g = 0; g <= maxGroup; g++) {
+                    int count = start[g + 1] - start[g];
+                    if (count == 0) continue;
+                    rows.writeInt(g);
+                    rows.writeInt(count);
+                    rows.writeLong(start[g]);
+                }
+
+                long orderOffset = groupOffset + (long) groupCount * GROUP_SIZE;
+                int[] order = new int[rowCount];
+                for (int i = 0; i < rowCount; i++) order[start[Math.max(0, groups[i])]++] = i;
+                for (int row : order) rows.writeInt(row);
+
+                rows.writeLong(textOffset);
+                rows.writeLong(groupOffset);
+                rows.writeLong(orderOffset);
+                rows.writeLong(rowCount);
+                rows.writeInt(groupCount);
+                rows.writeInt(MAGIC);
+            } finally {
+                rows.close();
+                textFile.delete();
+                groups = null;
+            }
+        }
+
+        /** Schreibt gepufferte Zeilen und Texte auf die Platte. */
+        public synchronized void flush() throws IOException {
+            if (closed) return;
+            rows.flush();
+            texts.flush();
+        }
+
+        public synchronized int getRowCount() {
+            return rowCount;
+        }
+
+        /** Bisher geschriebene Bytes (Zeilen und Texte, ohne den Index beim Schließen). */
+        public synchronized long getBytesWritten() {
+            return HEADER_SIZE + (long) rowCount * ROW_SIZE + textSize;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        private long text(String s) throws IOException {
+            long offset = textSize;
+            byte[] bytes = (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+            texts.writeInt(bytes.length);
+            texts.write(bytes);
+            textSize += 4 + bytes.length;
+            return offset;
+        }
+
+        private long textUnchecked(String s) {
+            try {
+                return text(s);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // ========================================================================
+    // ========== Lesen =======================================================
+    // ========================================================================
+
+    /**
+     * Wahlfreier Zugriff auf eine geschlossene Ergebnisdatei. Gruppen werden über ihre Position
+     * im Index (0 .. {@link #getGroupCount()}-1, nach Gruppen-ID sortiert) angesprochen.
+     * Thread-sicher (nur positionsgenaue Lesezugriffe).
+     */
+    public static final class Reader implements SavedResults {
+
+        /** Spalten wie die Attribute im XML-Export. */
+        private static final List<String> COLUMNS = List.of(
+                "group", "name", "path", "sizeBytes", "type", "created", "modified", "hash", "verified", "similarity");
+
+        private final FileChannel channel;
+        private final long timestamp;
+        private final long textOffset;
+        private final long groupOffset;
+        private final long orderOffset;
+        private final int rowCount;
+        private final int groupCount;
+
+        public Reader(File file) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                ByteBuffer header = readBytes(0, HEADER_SIZE);
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("Keine Ergebnisdatei: " + file);
+                }
+                timestamp = header.getLong();
+                long size = channel.size();
+                if (size < HEADER_SIZE + FOOTER_SIZE) throw new IOException("Ergebnisdatei unvollständig: " + file);
+                ByteBuffer footer = readBytes(size - FOOTER_SIZE, FOOTER_SIZE);
+                textOffset = footer.getLong();
+                groupOffset = footer.getLong();
+                orderOffset = footer.getLong();
+                rowCount = (int) footer.getLong();
+                groupCount = footer.getInt();
+                if (footer.getInt() != MAGIC) throw new IOException("Ergebnisdatei unvollständig: " + file);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public List<String> getColumns() {
+            return COLUMNS;
+        }
+
+        /** Zeilen in Gruppenreihenfolge (wie im XML-Export), Position {@code first} bis {@code first + count - 1}. */
+        @Override
+        public List<String[]> read(int first, int count) throws IOException {
+            count = Math.max(0, Math.min(count, rowCount - first));
+            ByteBuffer order = readBytes(orderOffset + (long) first * 4, count * 4);
+            List<String[]> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Record r = readRow(order.getInt());
+                rows.add(new String[]{
+                        String.valueOf(r.groupId), r.name, r.path, String.valueOf(r.sizeBytes), r.type,
+                        r.created != null ? r.created.toString() : "", r.modified != null ? r.modified.toString() : "",
+                        r.hash, String.valueOf(r.verified), String.valueOf(r.similarity)});
+            }
+            return rows;
+        }
+
+        public int getGroupCount() {
+            return groupCount;
+        }
+
+        /** Gruppen-ID der Gruppe an Indexposition {@code index}. */
+        public int getGroupId(int index) throws IOException {
+            return readBytes(groupEntry(index), 4).getInt();
+        }
+
+        /** Anzahl der Dateien der Gruppe an Indexposition {@code index}. */
+        public int getGroupSize(int index) throws IOException {
+            return readBytes(groupEntry(index) + 4, 4).getInt();
+        }
+
+        /** Alle Dateien der Gruppe an Indexposition {@code index}, in Schreibreihenfolge. */
+        public List<Record> readGroup(int index) throws IOException {
+            ByteBuffer entry = readBytes(groupEntry(index), GROUP_SIZE);
+            entry.getInt();
+            int count = entry.getInt();
+            long first = entry.getLong();
+            ByteBuffer order = readBytes(orderOffset + first * 4, count * 4);
+            List<Record> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) records.add(readRow(order.getInt()));
+            return records;
+        }
+
+        /** Zeile {@code row} in Schreibreihenfolge. */
+        public Record readRow(long row) throws IOException {
+            if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Zeile " + row);
+            ByteBuffer b = readBytes(HEADER_SIZE + row * ROW_SIZE, ROW_SIZE);
+            Record r = new Record();
+            r.groupId = b.getInt();
+            r.similarity = b.get();
+            r.verified = b.get() != 0;
+            b.getShort();
+            r.sizeBytes = b.getLong();
+            r.created = date(b.getInt());
+            r.modified = date(b.getInt());
+            r.name = text(b.getLong());
+            r.path = text(b.getLong());
+            r.type = text(b.getLong());
+            r.hash = text(b.getLong());
+            return r;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private long groupEntry(int index) {
+            if (index < 0 || index >= groupCount) throw new IndexOutOfBoundsException("Gruppe " + index);
+            return groupOffset + (long) index * GROUP_SIZE;
+        }
+
+        private String text(long offset) throws IOException {
+            int length = readBytes(textOffset + offset, 4).getInt();
+            return new String(readBytes(textOffset + offset + 4, length).array(), StandardCharsets.UTF_8);
+        }
+
+        private ByteBuffer readBytes(long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("Ergebnisdatei zu kurz");
+                }
+            }
+            return buffer.flip();
+        }
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NO_DATE;
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+}
@@ -2,22 +2,70 @@ package duplicates.controller;
 
 import duplicates.model.DuplicateSearchModel;
 import duplicates.model.DuplicateSearchOptionsModel;
+import duplicates.model.FileEntry;
+import duplicates.model.PathDictionary;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.IntConsumer;
 
 /**
  * Controller für die Duplikat-Suche.
- * Liest Dateien aus, filtert nach Optionen, gruppiert sie nach Größe + Hash und meldet Duplikate zurück.
+ *
+ * Arbeitet als Pipeline aus nebenläufigen Stufen, verbunden durch begrenzte Warteschlangen:
+ * Traversierung -> Filter -> Abgleich (Hash-Tasks je Datenträger) -> Meldung.
+ * Der Abgleich ({@link DuplicateMatcher}) grenzt je Dateigröße stufenweise ein
+ * (Kopfblock -> Endblock -> Byte-Vergleich bzw. voller Hash) und meldet eine Gruppe,
+ * sobald sie feststeht – nicht erst nach der kompletten Traversierung.
+ *
+ * Mit „Kompakter Katalog“ sammelt die Filterstufe die Dateien stattdessen spaltenweise in einem
+ * {@link FileCatalog}, sortiert ihn nach der Traversierung nach Größe und gibt nur Dateien,
+ * deren Größe mehrfach vorkommt, an den Abgleich weiter (deutlich weniger Heap, Gruppen erst
+ * nach der Traversierung).
  */
 public class DuplicateSearchController {
 
+    /** Kapazität der Warteschlangen zwischen Traversierung, Filter und Abgleich. */
+    private static final int QUEUE_CAPACITY = 4096;
+
+    /** Höchstens so viele Abgleich-Tasks gleichzeitig in den Geräte-Pools. */
+    private static final int MAX_IN_FLIGHT = 1024;
+
+    // Ende-Markierung in den Warteschlangen
+    private static final FileEntry END_OF_FILES = FileEntry.unreadable(new File(""));
+    private static final Report END_OF_REPORTS = new Report(null, 0, false);
+
     // Abbruch-Flag
     private volatile boolean cancelled = false;
 
+    // Pools und Stufen-Threads der laufenden Suche (für cancel())
+    private volatile ForkJoinPool hashPool;
+    private volatile DeviceIoScheduler ioScheduler;
+    private volatile Thread[] stageThreads = new Thread[0];
+
+    // Zähler der letzten Suche
+    private final DuplicateSearchStatistics statistics = new DuplicateSearchStatistics();
+
+    /** Meldung aus dem Abgleich an den aufrufenden Thread. */
+    private record Report(DuplicateSearchModel model, int id, boolean hardlink) {
+    }
+
     /**
      * Startet eine Duplikat-Suche.
      *
@@ -30,154 +78,417 @@ public class DuplicateSearchController {
                                  List<String> selectedFolders,
                                  BiConsumer<DuplicateSearchModel, Integer> resultConsumer,
                                  IntConsumer progressUpdater) {
+        searchDuplicates(options, selectedFolders, resultConsumer, (model, linkSetId) -> { }, progressUpdater);
+    }
 
-        cancelled = false; // Reset bei jedem Start
+    /**
+     * Startet eine Duplikat-Suche und meldet Hardlinks getrennt von echten Duplikaten.
+     * Jede physische Datei (Gerät + Inode) wird dabei höchstens einmal gelesen; in den
+     * Duplikat-Gruppen steht nur ein Vertreter pro Inode.
+     *
+     * Gruppen werden gemeldet, sobald sie feststehen, während die Traversierung noch läuft.
+     * Spätere Treffer einer bereits gemeldeten Gruppe kommen mit derselben Gruppen-ID nach.
+     * Alle Callbacks laufen im aufrufenden Thread.
+     *
+     * @param hardlinkConsumer Callback: erhält (Datei, Hardlink-Satz-ID) für jeden Pfad eines
+     *                         Hardlink-Satzes (mehrere Namen derselben Datei, Löschen spart keinen Platz)
+     */
+    public void searchDuplicates(DuplicateSearchOptionsModel options,
+                                 List<String> selectedFolders,
+                                 BiConsumer<DuplicateSearchModel, Integer> resultConsumer,
+                                 BiConsumer<DuplicateSearchModel, Integer> hardlinkConsumer,
+                                 IntConsumer progressUpdater) {
 
-        // --- 1) Dateien aus den ausgewählten Ordnern sammeln ---
-        List<File> allFiles = collectFiles(selectedFolders, options.isSubFolderBoo());
-
-        // --- 2) Optional: nach Min/Max-Größe filtern (in MB) ---
-        if (options.getMinFileSize() > 0 || options.getMaxFileSize() > 0) {
-            allFiles.removeIf(f -> {
-                if (cancelled) return true;
-                double sizeMB = f.length();
-                if (options.getMinFileSize() > 0 && sizeMB < options.getMinFileSize()) return true;
-                if (options.getMaxFileSize() > 0 && sizeMB > options.getMaxFileSize()) return true;
-                return false;
-            });
-        }
+        cancelled = false; // Reset bei jedem Start
+        statistics.reset();
 
-        // --- 3) Optional: nach Erstell-/Änderungsdatum filtern ---
-        if (options.getCreationDate() != null || options.getModificationDate() != null) {
-            allFiles.removeIf(f -> {
-                if (cancelled) return true;
-
-                DuplicateSearchModel m = new DuplicateSearchModel(f);
-
-                // Erstellungsdatum prüfen
-                LocalDate filterCreated = options.getCreationDate();
-                if (filterCreated != null) {
-                    LocalDate fileCreated = m.getCreationDate(); // bereits LocalDate
-                    if (fileCreated == null) return true; // wenn Filter gesetzt & kein Datum vorhanden -> raus
-
-                    String op = safe(options.getFileCreationDateOperator());
-                    switch (op) {
-                        case "<"  -> { if (!fileCreated.isBefore(filterCreated)) return true; }
-                        case "<=" -> { if ( fileCreated.isAfter(filterCreated)) return true; }
-                        case "="  -> { if (!fileCreated.isEqual(filterCreated)) return true; }
-                        case ">=" -> { if ( fileCreated.isBefore(filterCreated)) return true; }
-                        case ">"  -> { if (!fileCreated.isAfter(filterCreated)) return true; }
-                        default   -> { /* kein Operator -> kein Filter */ }
-                    }
-                }
+        // Überlappende Auswahl (z. B. /data und /data/photos) nur einmal durchlaufen
+        List<String> roots = SearchRoots.normalize(selectedFolders, options.isSubFolderBoo());
+        // Inkrementell: unveränderte Ordner werden aus dem Snapshot des letzten Laufs bedient
+        DirectorySnapshot snapshot = options.isIncrementalScan() ? DirectorySnapshot.getDefault() : null;
 
-                // Änderungsdatum prüfen
-                LocalDate filterModified = options.getModificationDate();
-                if (filterModified != null) {
-                    LocalDate fileModified = m.getModificationDate(); // bereits LocalDate
-                    if (fileModified == null) return true;
-
-                    String op = safe(options.getFileModificationDateOperator());
-                    switch (op) {
-                        case "<"  -> { if (!fileModified.isBefore(filterModified)) return true; }
-                        case "<=" -> { if ( fileModified.isAfter(filterModified)) return true; }
-                        case "="  -> { if (!fileModified.isEqual(filterModified)) return true; }
-                        case ">=" -> { if ( fileModified.isBefore(filterModified)) return true; }
-                        case ">"  -> { if (!fileModified.isAfter(filterModified)) return true; }
-                        default   -> { /* kein Operator -> kein Filter */ }
-                    }
-                }
+        HashStrategy strategy = HashStrategies.resolve(options.getHashAlgorithm(), options.isCryptoConfirm());
+        boolean confirm = options.isCryptoConfirm() && !strategy.isCryptographic();
+        HashCache cache = options.isUseHashCache() ? HashCache.getDefault() : null;
+        ForkJoinPool pool = createHashPool(options.getHashThreads());
+        hashPool = pool;
+        // Lesen/Hashen je Datenträger begrenzt, alle Datenträger gleichzeitig
+        int ssdStreams = options.getSsdStreams() > 0 ? options.getSsdStreams() : pool.getParallelism();
+        DeviceIoScheduler io = new DeviceIoScheduler(options.getHddStreams(), ssdStreams, pool);
+        ioScheduler = io;
 
-                return false;
-            });
-        }
+        BlockingQueue<FileEntry> found = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<FileEntry> accepted = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Report> reports = new LinkedBlockingQueue<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong discovered = new AtomicLong();
+        AtomicLong settled = new AtomicLong();
 
-        int total = allFiles.size();
-        int processed = 0;
-        int groupId = 1;
+        DuplicateMatcher.Listener listener = new DuplicateMatcher.Listener() {
+            @Override
+            public void duplicate(DuplicateSearchModel model, int groupId) {
+                reports.add(new Report(model, groupId, false));
+            }
 
-        // --- 4) Gruppieren nach Dateigröße ---
-        Map<Long, List<File>> sizeGroups = new HashMap<>();
-        for (File file : allFiles) {
-            if (cancelled) return;
-            sizeGroups.computeIfAbsent(file.length(), k -> new ArrayList<>()).add(file);
+            @Override
+            public void hardlink(DuplicateSearchModel model, int linkSetId) {
+                reports.add(new Report(model, linkSetId, true));
+            }
+        };
+        // Kandidaten-Pfade teilen sich die Ordner-Knoten eines Wörterbuchs je Suche
+        PathDictionary paths = new PathDictionary();
+        DuplicateMatcher matcher = new DuplicateMatcher(strategy, cache, paths, io, confirm, options.isByteVerify(),
+                statistics, () -> cancelled, listener);
+        // Bild-, Block- bzw. Textvergleich: ähnliche statt identische Dateien, unabhängig von der Größe
+        DeferredMatcher deferred = null;
+        if (options.isSimilarImages()) {
+            deferred = new SimilarImageMatcher(paths, strategy, options.getImageMaxDistance(), statistics,
+                    () -> cancelled, listener);
+        } else if (options.isChunkOverlap()) {
+            deferred = new ChunkOverlapMatcher(paths, strategy, options.getChunkMinShare(), statistics,
+                    () -> cancelled, listener);
+        } else if (options.isTextSimilarity()) {
+            deferred = new TextSimilarityMatcher(paths, strategy, options.getTextMinSimilarity(), statistics,
+                    () -> cancelled, listener);
         }
+        DeferredMatcher alternative = deferred;
 
-        // --- 5) Jede Größen-Gruppe auf Hash-Duplikate prüfen ---
-        for (List<File> group : sizeGroups.values()) {
-            if (cancelled) return;
+        // --- 1) Traversierung ---
+        Thread traversal = stageThread("Duplicates-Traversal", failure, () -> {
+            try {
+                long scan = snapshot != null ? snapshot.startScan() : 0L;
+                collectFiles(roots, options.isSubFolderBoo(), snapshot, f -> put(found, f));
+                if (snapshot != null) {
+                    // vollständig durchlaufen: nicht mehr vorhandene Ordner vergessen
+                    if (!cancelled && options.isSubFolderBoo()) snapshot.prune(roots, scan);
+                    snapshot.save();
+                }
+            } finally {
+                put(found, END_OF_FILES);
+            }
+        });
 
-            if (group.size() < 2) {
-                processed += group.size();
-                updateProgress(progressUpdater, processed, total);
-                continue;
+        // --- 2) Filter (Größe, Datum) auf den beim Listen gelesenen Attributen ---
+        // Kompakter Katalog bzw. Auslagern: erst alles sammeln, dann nach Größe sortiert weitergeben
+        ExternalSizeSorter sorter = alternative != null ? null
+                : options.isExternalGrouping() ? new ExternalSizeSorter()
+                : options.isCompactCatalog() ? new ExternalSizeSorter(Integer.MAX_VALUE, 1.0) : null;
+        Thread filter = stageThread("Duplicates-Filter", failure, () -> {
+            try {
+                for (FileEntry e = take(found); e != END_OF_FILES && e != null; e = take(found)) {
+                    if (!matchesSize(e.size(), options) || !matchesDates(e, options)) continue;
+                    discovered.incrementAndGet();
+                    statistics.addFilesScanned(1);
+                    if (sorter != null) {
+                        sorter.add(e);
+                    } else {
+                        put(accepted, e);
+                    }
+                }
+                if (sorter != null && !cancelled) {
+                    forwardSizeGroups(sorter, accepted, settled);
+                }
+            } finally {
+                if (sorter != null) sorter.close();
+                put(accepted, END_OF_FILES);
             }
+        });
 
-            Map<String, List<DuplicateSearchModel>> hashGroups = new HashMap<>();
-            for (File file : group) {
-                if (cancelled) return;
-                DuplicateSearchModel model = new DuplicateSearchModel(file);
-                String hash = model.getFileHash();
-                hashGroups.computeIfAbsent(hash, k -> new ArrayList<>()).add(model);
-                processed++;
-                updateProgress(progressUpdater, processed, total);
+        // --- 3) Abgleich: je Datei ein Task auf dem Pool ihres Datenträgers ---
+        Thread dispatcher = stageThread("Duplicates-Match", failure, () -> {
+            Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+            try {
+                for (FileEntry e = take(accepted); e != null && e != END_OF_FILES; e = take(accepted)) {
+                    FileEntry entry = e;
+                    Runnable task;
+                    if (alternative != null) {
+                        if (!alternative.accepts(entry)) {
+                            settled.incrementAndGet(); // z. B. kein lesbares Bildformat
+                            continue;
+                        }
+                        task = () -> alternative.insert(entry);
+                    } else {
+                        DuplicateMatcher.Bucket bucket = matcher.offer(entry);
+                        if (bucket == null) {
+                            settled.incrementAndGet(); // erste ihrer Größe: vorerst nichts zu lesen
+                            continue;
+                        }
+                        task = () -> matcher.insert(bucket, entry);
+                    }
+                    inFlight.acquire();
+                    try {
+                        io.executorFor(entry.file()).execute(() -> {
+                            try {
+                                task.run();
+                            } catch (Throwable t) {
+                                failure.compareAndSet(null, t);
+                            } finally {
+                                settled.incrementAndGet();
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RejectedExecutionException ex) {
+                        inFlight.release(); // abgebrochen, Pools sind schon beendet
+                        break;
+                    }
+                }
+                // warten, bis alle Tasks fertig sind (bei Abbruch verwerfen die Pools ihre Warteschlangen)
+                while (!inFlight.tryAcquire(MAX_IN_FLIGHT, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) return;
+                }
+                if (alternative != null) {
+                    alternative.finish();
+                } else {
+                    matcher.finish();
+                }
+            } finally {
+                reports.add(END_OF_REPORTS);
             }
+        });
 
-            // --- 6) Nur Gruppen mit echten Duplikaten melden ---
-            for (List<DuplicateSearchModel> duplicates : hashGroups.values()) {
-                if (cancelled) return;
+        stageThreads = new Thread[]{traversal, filter, dispatcher};
+        traversal.start();
+        filter.start();
+        dispatcher.start();
 
-                if (duplicates.size() > 1) {
-                    for (DuplicateSearchModel model : duplicates) {
-                        resultConsumer.accept(model, groupId);
-                        if (cancelled) return;
+        // --- 4) Meldungen im aufrufenden Thread weiterreichen ---
+        int lastPercent = -1;
+        try {
+            while (!cancelled) {
+                Report r;
+                try {
+                    r = reports.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    break;
+                }
+                if (r == END_OF_REPORTS) break;
+                if (r != null) {
+                    if (r.hardlink()) {
+                        hardlinkConsumer.accept(r.model(), r.id());
+                    } else {
+                        resultConsumer.accept(r.model(), r.id());
                     }
-                    groupId++;
                 }
+                lastPercent = updateProgress(progressUpdater, settled.get(), discovered.get(), lastPercent);
+            }
+            if (!cancelled && failure.get() != null) {
+                throw new CompletionException(failure.get());
             }
+            if (!cancelled) progressUpdater.accept(100);
+        } finally {
+            stageThreads = new Thread[0];
+            hashPool = null;
+            ioScheduler = null;
+            statistics.setDevices(io.describe());
+            io.shutdownNow();
+            pool.shutdownNow();
+            if (cache != null) cache.flush();
         }
     }
 
+    /**
+     * Zähler der letzten (bzw. laufenden) Suche: ausgeschiedene Dateien je Stufe.
+     */
+    public DuplicateSearchStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * Bricht eine laufende Suche ab.
      */
     public void cancel() {
         this.cancelled = true;
+        // Stufen-Threads wecken (blockieren evtl. in einer Warteschlange) und Worker unterbrechen
+        for (Thread t : stageThreads) {
+            t.interrupt();
+        }
+        DeviceIoScheduler io = ioScheduler;
+        if (io != null) {
+            io.shutdownNow();
+        }
+        ForkJoinPool pool = hashPool;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
     }
 
     // --- Hilfsmethoden ---
 
-    private List<File> collectFiles(List<String> roots, boolean includeSubfolders) {
-        List<File> result = new ArrayList<>();
+    /** Schnittstelle für Stufen, die blockierend auf Warteschlangen warten. */
+    private interface StageBody {
+        void run() throws InterruptedException, IOException;
+    }
+
+    private Thread stageThread(String name, AtomicReference<Throwable> failure, StageBody body) {
+        Thread t = new Thread(() -> {
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                // Abbruch
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    /** Blockierendes Einstellen, das auf Abbruch reagiert. */
+    private <T> void put(BlockingQueue<T> queue, T item) throws InterruptedException {
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            if (cancelled) throw new InterruptedException("Suche abgebrochen");
+        }
+    }
+
+    /** Blockierendes Entnehmen; null bei Abbruch. */
+    private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+        while (!cancelled) {
+            T item = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (item != null) return item;
+        }
+        return null;
+    }
+
+    /**
+     * Work-Stealing-Pool für Dateien, deren Datenträger nicht bestimmbar ist.
+     *
+     * @param threads gewünschte Parallelität, 0 = Anzahl CPU-Kerne
+     */
+    private ForkJoinPool createHashPool(int threads) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("Duplicates-Hash-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    /**
+     * Gesammelte Dateien nach Größe sortiert lesen und nur Dateien gleicher Größe (mind. zwei)
+     * an den Abgleich geben; Einzelgänger gelten sofort als abgeglichen. Gelesen wird als Strom,
+     * gehalten wird höchstens ein Eintrag – auch bei ausgelagerten Läufen bleibt der Speicher fest.
+     */
+    private void forwardSizeGroups(ExternalSizeSorter sorter, BlockingQueue<FileEntry> accepted,
+                                   AtomicLong settled) throws InterruptedException, IOException {
+        statistics.setCatalogRuns(sorter.getRunCount());
+        ExternalSizeSorter.Merge sorted = sorter.open();
+        FileEntry single = null; // erster (bisher einziger) Eintrag der aktuellen Größe
+        long size = -1;
+        for (FileEntry e = sorted.next(); e != null; e = sorted.next()) {
+            if (cancelled) return;
+            if (e.size() != size) {
+                if (single != null) {
+                    statistics.addEliminatedBySize(1);
+                    settled.incrementAndGet();
+                }
+                size = e.size();
+                single = e;
+            } else {
+                if (single != null) {
+                    put(accepted, single);
+                    single = null;
+                }
+                put(accepted, e);
+            }
+        }
+        if (single != null) {
+            statistics.addEliminatedBySize(1);
+            settled.incrementAndGet();
+        }
+    }
+
+    private static boolean matchesSize(long size, DuplicateSearchOptionsModel options) {
+        if (options.getMinFileSize() > 0 && size < options.getMinFileSize()) return false;
+        if (options.getMaxFileSize() > 0 && size > options.getMaxFileSize()) return false;
+        return true;
+    }
+
+    private static boolean matchesDates(FileEntry e, DuplicateSearchOptionsModel options) {
+        if (options.getCreationDate() == null && options.getModificationDate() == null) return true;
+
+        // Erstellungsdatum prüfen
+        LocalDate filterCreated = options.getCreationDate();
+        if (filterCreated != null) {
+            LocalDate fileCreated = e.creationDate();
+            if (fileCreated == null) return false; // wenn Filter gesetzt & kein Datum vorhanden -> raus
+
+            String op = safe(options.getFileCreationDateOperator());
+            switch (op) {
+                case "<"  -> { if (!fileCreated.isBefore(filterCreated)) return false; }
+                case "<=" -> { if ( fileCreated.isAfter(filterCreated)) return false; }
+                case "="  -> { if (!fileCreated.isEqual(filterCreated)) return false; }
+                case ">=" -> { if ( fileCreated.isBefore(filterCreated)) return false; }
+                case ">"  -> { if (!fileCreated.isAfter(filterCreated)) return false; }
+                default   -> { /* kein Operator -> kein Filter */ }
+            }
+        }
+
+        // Änderungsdatum prüfen
+        LocalDate filterModified = options.getModificationDate();
+        if (filterModified != null) {
+            LocalDate fileModified = e.modificationDate();
+            if (fileModified == null) return false;
+
+            String op = safe(options.getFileModificationDateOperator());
+            switch (op) {
+                case "<"  -> { if (!fileModified.isBefore(filterModified)) return false; }
+                case "<=" -> { if ( fileModified.isAfter(filterModified)) return false; }
+                case "="  -> { if (!fileModified.isEqual(filterModified)) return false; }
+                case ">=" -> { if ( fileModified.isBefore(filterModified)) return false; }
+                case ">"  -> { if (!fileModified.isAfter(filterModified)) return false; }
+                default   -> { /* kein Operator -> kein Filter */ }
+            }
+        }
+
+        return true;
+    }
+
+    private void collectFiles(List<String> roots, boolean includeSubfolders, DirectorySnapshot snapshot,
+                              DirectoryWalker.Sink<FileEntry> sink) throws InterruptedException {
         for (String rootPath : roots) {
-            if (cancelled) return result;
+            if (cancelled) return;
             File root = new File(rootPath);
             if (root.exists() && root.isDirectory()) {
-                collectRecursive(root, result, includeSubfolders);
+                collectFolder(root, sink, includeSubfolders, snapshot);
             }
         }
-        return result;
     }
 
-    private void collectRecursive(File folder, List<File> result, boolean includeSubfolders) {
-        if (cancelled) return;
-        File[] files = folder.listFiles();
-        if (files == null) return;
-        for (File f : files) {
+    /**
+     * Tiefensuche über einen expliziten Stack; jedes Verzeichnis wird gestreamt gelistet
+     * (aus dem Snapshot oder per DirectoryStream), Dateien gehen samt Attributen an den Sink.
+     */
+    private void collectFolder(File folder, DirectoryWalker.Sink<FileEntry> sink, boolean includeSubfolders,
+                                  DirectorySnapshot snapshot) throws InterruptedException {
+        Deque<File> stack = new ArrayDeque<>();
+        stack.push(folder);
+        DirectoryWalker.Sink<File> subDirs = includeSubfolders ? stack::push : DirectoryWalker.IGNORE_DIRS;
+        while (!stack.isEmpty()) {
             if (cancelled) return;
-            if (f.isFile()) {
-                result.add(f);
-            } else if (f.isDirectory() && includeSubfolders) {
-                collectRecursive(f, result, true);
+            File dir = stack.pop();
+            if (snapshot != null) {
+                snapshot.list(dir, sink, subDirs);
+            } else {
+                DirectoryWalker.list(dir, sink, subDirs);
             }
         }
     }
 
-    private void updateProgress(IntConsumer progressUpdater, int processed, int total) {
-        if (total > 0) {
-            int percent = (int) ((processed / (double) total) * 100);
+    /**
+     * Fortschritt = abgeglichene / bisher gefundene Dateien. Solange die Traversierung läuft,
+     * wächst der Nenner noch; angezeigt wird daher nie weniger als zuvor.
+     */
+    private static int updateProgress(IntConsumer progressUpdater, long settled, long discovered, int last) {
+        if (discovered <= 0) return last;
+        int percent = (int) Math.min(99, settled * 100 / discovered);
+        if (percent > last) {
             progressUpdater.accept(percent);
+            return percent;
         }
+        return last;
     }
 
     private static String safe(String s) {
@@ -0,0 +1,138 @@
+package duplicates.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zähler einer Duplikat-Suche: wie viele Dateien in welcher Stufe ausgeschieden sind.
+ * Reihenfolge der Stufen: Größe -> Kopfblock -> Endblock -> voller Hash -> (optional) SHA-256-Bestätigung,
+ * wobei kleine Gruppen und (optional) Hash-Treffer Byte für Byte verglichen werden.
+ */
+public class DuplicateSearchStatistics {
+
+    private final AtomicLong filesScanned = new AtomicLong();
+    private final AtomicLong eliminatedBySize = new AtomicLong();
+    private final AtomicLong eliminatedByHead = new AtomicLong();
+    private final AtomicLong eliminatedByTail = new AtomicLong();
+    private final AtomicLong eliminatedByFullHash = new AtomicLong();
+    private final AtomicLong eliminatedByConfirm = new AtomicLong();
+    private final AtomicLong eliminatedByCompare = new AtomicLong();
+    private final AtomicLong duplicateFiles = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong duplicateGroups = new AtomicLong();
+    private final AtomicLong unreadable = new AtomicLong();
+    private final AtomicLong hardlinkSets = new AtomicLong();
+    private final AtomicLong hardlinkFiles = new AtomicLong();
+    private final AtomicLong chunkedBytes = new AtomicLong();   // Blockvergleich: gelesene Bytes
+    private final AtomicLong reclaimableBytes = new AtomicLong(); // davon in bereits bekannten Blöcken
+    private final AtomicLong uniqueChunks = new AtomicLong();
+    private volatile String devices = "";                        // gelesene Datenträger mit Typ
+    private final AtomicLong catalogRuns = new AtomicLong();     // ausgelagerte Läufe des Katalogs
+
+    public void reset() {
+        filesScanned.set(0);
+        eliminatedBySize.set(0);
+        eliminatedByHead.set(0);
+        eliminatedByTail.set(0);
+        eliminatedByFullHash.set(0);
+        eliminatedByConfirm.set(0);
+        eliminatedByCompare.set(0);
+        duplicateFiles.set(0);
+        cacheHits.set(0);
+        cacheMisses.set(0);
+        duplicateGroups.set(0);
+        unreadable.set(0);
+        hardlinkSets.set(0);
+        hardlinkFiles.set(0);
+        chunkedBytes.set(0);
+        reclaimableBytes.set(0);
+        uniqueChunks.set(0);
+        devices = "";
+        catalogRuns.set(0);
+    }
+
+    // --- Zählen (vom Controller aufgerufen) ---
+    void addFilesScanned(long n) { filesScanned.addAndGet(n); }
+    void addEliminatedBySize(long n) { eliminatedBySize.addAndGet(n); }
+    void addEliminatedByHead(long n) { eliminatedByHead.addAndGet(n); }
+    void addEliminatedByTail(long n) { eliminatedByTail.addAndGet(n); }
+    void addEliminatedByFullHash(long n) { eliminatedByFullHash.addAndGet(n); }
+    void addEliminatedByConfirm(long n) { eliminatedByConfirm.addAndGet(n); }
+    void addEliminatedByCompare(long n) { eliminatedByCompare.addAndGet(n); }
+    void addUnreadable(long n) { unreadable.addAndGet(n); }
+    void addCacheLookup(boolean hit) { (hit ? cacheHits : cacheMisses).incrementAndGet(); }
+    void addDuplicateGroup(int files) {
+        duplicateGroups.incrementAndGet();
+        duplicateFiles.addAndGet(files);
+    }
+    void addDuplicateFile() { duplicateFiles.incrementAndGet(); }
+    void addHardlinkSet(int files) {
+        hardlinkSets.incrementAndGet();
+        hardlinkFiles.addAndGet(files);
+    }
+    void addHardlinkFile() { hardlinkFiles.incrementAndGet(); }
+    void addChunkedBytes(long bytes, long reclaimable) {
+        chunkedBytes.addAndGet(bytes);
+        reclaimableBytes.addAndGet(reclaimable);
+    }
+    void setUniqueChunks(long n) { uniqueChunks.set(n); }
+    void setDevices(String description) { devices = description; }
+    void setCatalogRuns(long n) { catalogRuns.set(n); }
+
+    // --- Getter ---
+    public long getFilesScanned() { return filesScanned.get(); }
+    public long getEliminatedBySize() { return eliminatedBySize.get(); }
+    public long getEliminatedByHead() { return eliminatedByHead.get(); }
+    public long getEliminatedByTail() { return eliminatedByTail.get(); }
+    public long getEliminatedByFullHash() { return eliminatedByFullHash.get(); }
+    public long getEliminatedByConfirm() { return eliminatedByConfirm.get(); }
+    public long getEliminatedByCompare() { return eliminatedByCompare.get(); }
+    public long getDuplicateFiles() { return duplicateFiles.get(); }
+    public long getDuplicateGroups() { return duplicateGroups.get(); }
+    public long getCacheHits() { return cacheHits.get(); }
+    public long getCacheMisses() { return cacheMisses.get(); }
+    public long getUnreadable() { return unreadable.get(); }
+    public long getHardlinkSets() { return hardlinkSets.get(); }
+    public long getHardlinkFiles() { return hardlinkFiles.get(); }
+    public long getChunkedBytes() { return chunkedBytes.get(); }
+    public long getReclaimableBytes() { return reclaimableBytes.get(); }
+    public long getUniqueChunks() { return uniqueChunks.get(); }
+    public String getDevices() { return devices; }
+    public long getCatalogRuns() { return catalogRuns.get(); }
+
+    /** Anteil der vollen Hashes, die aus dem Cache kamen (0–1). */
+    public double getCacheHitRatio() {
+        long total = getCacheHits() + getCacheMisses();
+        return total == 0 ? 0.0 : getCacheHits() / (double) total;
+    }
+
+    /** Kurze Zusammenfassung für Statuszeile / Log. */
+    public String toSummary() {
+        return getDuplicateGroups() + " Gruppen, " + getDuplicateFiles() + " Duplikate von "
+                + getFilesScanned() + " Dateien (aussortiert: Größe " + getEliminatedBySize()
+                + ", Kopf " + getEliminatedByHead()
+                + ", Ende " + getEliminatedByTail()
+                + ", Hash " + getEliminatedByFullHash()
+                + ", Bestätigung " + getEliminatedByConfirm()
+                + ", Bytevergleich " + getEliminatedByCompare() + ")"
+                + (getCacheHits() + getCacheMisses() > 0
+                    ? String.format(", Cache %d/%d (%.0f %%)", getCacheHits(),
+                        getCacheHits() + getCacheMisses(), getCacheHitRatio() * 100)
+                    : "")
+                + (getUnreadable() > 0 ? ", " + getUnreadable() + " nicht lesbar" : "")
+                + (getHardlinkSets() > 0
+                    ? ", Hardlinks: " + getHardlinkSets() + " Sätze (" + getHardlinkFiles() + " Pfade)"
+                    : "")
+                + (getChunkedBytes() > 0
+                    ? String.format(", Blöcke: %d eindeutig, %d von %d MB per Block-Deduplizierung einsparbar",
+                        getUniqueChunks(), getReclaimableBytes() >> 20, getChunkedBytes() >> 20)
+                    : "")
+                + (!getDevices().isEmpty() ? ", Datenträger: " + getDevices() : "")
+                + (getCatalogRuns() > 0 ? ", Katalog in " + getCatalogRuns() + " Läufen ausgelagert" : "");
+    }
+
+    @Override
+    public String toString() {
+        return "DuplicateSearchStatistics{" + toSummary() + "}";
+    }
+}
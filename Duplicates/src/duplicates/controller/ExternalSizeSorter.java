@@ -0,0 +1,263 @@
+package duplicates.controller;
+
+import duplicates.model.FileEntry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Gruppierung nach Größe mit festem Speicherbudget (externes Sortieren).
+ *
+ * Dateien sammeln sich in einem {@link FileCatalog}; wird er zu groß oder meldet der
+ * {@link MemoryMXBean} einen vollen Heap, wird er nach Größe sortiert als Lauf-Datei auf die
+ * lokale Platte geschrieben und geleert. {@link #open()} mischt alle Läufe (k-Wege-Merge,
+ * bei sehr vielen Läufen in mehreren Durchgängen) und liefert die Einträge aufsteigend nach
+ * Größe – gleich große Dateien kommen hintereinander, unabhängig von der Gesamtzahl.
+ *
+ * Nicht thread-sicher: wird von genau einem Thread befüllt und gelesen.
+ */
+public class ExternalSizeSorter implements Closeable {
+
+    /** Höchstens so viele Einträge je Lauf im Speicher (ca. 50 MB Katalog). */
+    public static final int DEFAULT_RUN_SIZE = 1_000_000;
+
+    /** Ab diesem Anteil belegten Heaps wird vorzeitig ausgelagert. */
+    public static final double DEFAULT_HEAP_THRESHOLD = 0.7;
+
+    /** Läufe, die höchstens gleichzeitig gemischt werden (offene Dateien, Puffer). */
+    private static final int MAX_FAN_IN = 64;
+
+    /** Heap nur alle n Einträge prüfen. */
+    private static final int HEAP_CHECK_INTERVAL = 4096;
+
+    /** Kleinere Läufe lohnen nicht, auch wenn der Heap knapp ist. */
+    private static final int MIN_RUN_SIZE = 16 * 1024;
+
+    private static final int IO_BUFFER = 64 * 1024;
+
+    private final int runSize;
+    private final double heapThreshold;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<Path> runs = new ArrayList<>();
+    private Path spillDir;
+    private FileCatalog buffer = new FileCatalog();
+    private long count;
+    private Merge merge;
+
+    public ExternalSizeSorter() {
+        this(DEFAULT_RUN_SIZE, DEFAULT_HEAP_THRESHOLD);
+    }
+
+    /**
+     * @param runSize       maximale Einträge je Lauf im Speicher
+     * @param heapThreshold Anteil belegten Heaps (0..1), ab dem sofort ausgelagert wird
+     */
+    public ExternalSizeSorter(int runSize, double heapThreshold) {
+        this.runSize = Math.max(MIN_RUN_SIZE, runSize);
+        this.heapThreshold = heapThreshold;
+    }
+
+    public void add(FileEntry entry) throws IOException {
+        buffer.add(entry);
+        count++;
+        int rows = buffer.size();
+        if (rows >= runSize || (rows >= MIN_RUN_SIZE && rows % HEAP_CHECK_INTERVAL == 0 && heapTight())) {
+            spill();
+        }
+    }
+
+    /** Anzahl aufgenommener Einträge. */
+    public long size() {
+        return count;
+    }
+
+    /** Anzahl bisher geschriebener Lauf-Dateien. */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Beendet das Befüllen und liefert einen Leser über alle Einträge, aufsteigend nach Größe.
+     * Ohne Auslagerung wird direkt aus dem Speicher gelesen.
+     */
+    public Merge open() throws IOException {
+        if (runs.isEmpty()) {
+            FileCatalog catalog = buffer;
+            int[] order = catalog.sortedBySize();
+            buffer = new FileCatalog();
+            merge = new Merge(List.of()) {
+                private int next;
+
+                @Override
+                public FileEntry next() {
+                    return next < order.length ? catalog.entry(order[next++]) : null;
+                }
+            };
+            return merge;
+        }
+        if (buffer.size() > 0) spill();
+        buffer = null;
+        // Mehrstufig mischen, bis alle Läufe gleichzeitig offen sein dürfen
+        while (runs.size() > MAX_FAN_IN) {
+            List<Path> batch = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+            runs.subList(0, MAX_FAN_IN).clear();
+            Path merged = newRunFile();
+            try (Merge m = new Merge(batch); DataOutputStream out = openRun(merged)) {
+                for (FileEntry e = m.next(); e != null; e = m.next()) write(out, e);
+            }
+            for (Path p : batch) Files.deleteIfExists(p);
+            runs.add(merged);
+        }
+        merge = new Merge(runs);
+        return merge;
+    }
+
+    /** Schließt offene Läufe und löscht alle Lauf-Dateien. */
+    @Override
+    public void close() {
+        if (merge != null) merge.close();
+        try {
+            for (Path p : runs) Files.deleteIfExists(p);
+            if (spillDir != null) Files.deleteIfExists(spillDir);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        runs.clear();
+        buffer = null;
+    }
+
+    // --- Interna ---
+
+    private boolean heapTight() {
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        long max = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+        return max > 0 && heap.getUsed() > max * heapThreshold;
+    }
+
+    /** Puffer nach Größe sortiert als Lauf-Datei schreiben und leeren. */
+    private void spill() throws IOException {
+        int[] order = buffer.sortedBySize();
+        Path run = newRunFile();
+        try (DataOutputStream out = openRun(run)) {
+            for (int row : order) write(out, buffer.entry(row));
+        }
+        runs.add(run);
+        buffer = new FileCatalog();
+    }
+
+    private Path newRunFile() throws IOException {
+        if (spillDir == null) {
+            spillDir = Files.createTempDirectory("duplicates-spill");
+            spillDir.toFile().deleteOnExit();
+        }
+        Path run = Files.createTempFile(spillDir, "run-", ".bin");
+        run.toFile().deleteOnExit();
+        return run;
+    }
+
+    private static DataOutputStream openRun(Path run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER));
+    }
+
+    /** Satz: Größe, Erstellt, Geändert, Gerät, Inode, Pfad (Länge + UTF-8). */
+    private static void write(DataOutputStream out, FileEntry e) throws IOException {
+        long[] devIno = FileCatalog.parseFileKey(e.fileKey());
+        byte[] path = e.file().getPath().getBytes(StandardCharsets.UTF_8);
+        out.writeLong(e.size());
+        out.writeLong(e.createdMillis());
+        out.writeLong(e.modifiedMillis());
+        out.writeLong(devIno[0]);
+        out.writeLong(devIno[1]);
+        out.writeInt(path.length);
+        out.write(path);
+    }
+
+    /** Nächster Satz eines Laufs; null am Ende. */
+    private static FileEntry read(DataInputStream in) throws IOException {
+        long size;
+        try {
+            size = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        long created = in.readLong();
+        long modified = in.readLong();
+        long dev = in.readLong();
+        long ino = in.readLong();
+        byte[] path = new byte[in.readInt()];
+        in.readFully(path);
+        Object key = dev != -1L && ino != -1L ? new FileCatalog.InodeKey(dev, ino) : null;
+        return new FileEntry(new File(new String(path, StandardCharsets.UTF_8)), size, created, modified, key);
+    }
+
+    /** Lauf-Leser mit vorgelesenem Kopf-Eintrag (für die Prioritätswarteschlange). */
+    private static final class RunReader {
+        final DataInputStream in;
+        FileEntry head;
+
+        RunReader(Path run) throws IOException {
+            InputStream is = Files.newInputStream(run);
+            this.in = new DataInputStream(new BufferedInputStream(is, IO_BUFFER));
+            this.head = read(in);
+        }
+    }
+
+    /** K-Wege-Merge über sortierte Läufe. */
+    public static class Merge implements Closeable {
+        private final PriorityQueue<RunReader> heads =
+                new PriorityQueue<>((a, b) -> Long.compare(a.head.size(), b.head.size()));
+        private final List<RunReader> readers = new ArrayList<>();
+
+        Merge(List<Path> runs) throws IOException {
+            try {
+                for (Path run : runs) {
+                    RunReader r = new RunReader(run);
+                    readers.add(r);
+                    if (r.head != null) heads.add(r);
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /** Nächster Eintrag (aufsteigend nach Größe); null am Ende. */
+        public FileEntry next() throws IOException {
+            RunReader r = heads.poll();
+            if (r == null) return null;
+            FileEntry e = r.head;
+            r.head = read(r.in);
+            if (r.head != null) heads.add(r);
+            return e;
+        }
+
+        @Override
+        public void close() {
+            for (RunReader r : readers) {
+                try {
+                    r.in.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            readers.clear();
+            heads.clear();
+        }
+    }
+}
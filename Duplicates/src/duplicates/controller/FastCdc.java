@@ -0,0 +1,94 @@
+package duplicates.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+/**
+ * Inhaltsdefinierte Blockbildung nach FastCDC (Gear-Hash mit normalisierter Blockgröße).
+ *
+ * Blockgrenzen hängen nur vom Inhalt der letzten Bytes ab, nicht von der Position: wird in
+ * einer Datei etwas eingefügt oder gelöscht, verschieben sich nur die Blöcke an der Stelle,
+ * alle übrigen bleiben gleich. So erkennt der Abgleich gemeinsame Abschnitte zweier Dateien
+ * (VM-Images, Backup-Archive), die ganzheitlich nie gleich hashen.
+ *
+ * Gelesen wird als Strom mit festem Puffer; jeder Block wird mit xxHash64 gehasht.
+ */
+final class FastCdc {
+
+    /** Angestrebte mittlere Blockgröße. */
+    static final int AVG_SIZE = 64 * 1024;
+    static final int MIN_SIZE = AVG_SIZE / 4;
+    static final int MAX_SIZE = AVG_SIZE * 4;
+
+    // Normalisierung: vor der Zielgröße strengere Maske (seltener Schnitt), danach lockerere
+    private static final long MASK_SMALL = mask(Integer.numberOfTrailingZeros(AVG_SIZE) + 2);
+    private static final long MASK_LARGE = mask(Integer.numberOfTrailingZeros(AVG_SIZE) - 2);
+
+    private static final int READ_BUFFER = 256 * 1024;
+
+    /** Zufallswerte je Byte; fester Seed, damit Blockgrenzen über Läufe hinweg gleich bleiben. */
+    private static final long[] GEAR = new long[256];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_CDC0L);
+        for (int i = 0; i < GEAR.length; i++) GEAR[i] = random.nextLong();
+    }
+
+    /** Empfänger der Blöcke einer Datei (in Dateireihenfolge). */
+    interface ChunkSink {
+        void chunk(long fingerprint, int length);
+    }
+
+    private FastCdc() {
+    }
+
+    /**
+     * Zerlegt die Datei in Blöcke und meldet je Block Fingerabdruck und Länge.
+     *
+     * @throws InterruptedException wenn der Thread unterbrochen wurde (Abbruch der Suche)
+     */
+    static void chunk(File file, ChunkSink sink) throws IOException, InterruptedException {
+        byte[] buffer = new byte[READ_BUFFER];
+        long hash = 0;
+        int length = 0;
+        XxHash64 fingerprint = new XxHash64();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Blockbildung abgebrochen: " + file);
+                }
+                int start = 0;
+                for (int i = 0; i < read; i++) {
+                    length++;
+                    if (length < MIN_SIZE) continue; // unterhalb der Mindestgröße wird nicht geschnitten
+                    hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+                    long mask = length < AVG_SIZE ? MASK_SMALL : MASK_LARGE;
+                    if ((hash & mask) == 0 || length >= MAX_SIZE) {
+                        fingerprint.update(buffer, start, i + 1 - start);
+                        sink.chunk(fingerprint.value(), length);
+                        fingerprint = new XxHash64();
+                        start = i + 1;
+                        hash = 0;
+                        length = 0;
+                    }
+                }
+                if (start < read) fingerprint.update(buffer, start, read - start);
+            }
+        }
+        if (length > 0) sink.chunk(fingerprint.value(), length);
+    }
+
+    /**
+     * Maske mit {@code bits} gesetzten Bits, über die oberen 48 Bit verteilt (wie im FastCDC-Paper):
+     * Bit k des Gear-Hashes hängt von den letzten k + 1 Bytes ab, die oberen sehen also genug Kontext.
+     */
+    private static long mask(int bits) {
+        long mask = 0;
+        for (int i = 0; i < bits; i++) mask |= 1L << (63 - i * 48 / bits);
+        return mask;
+    }
+}
@@ -1,5 +1,7 @@
 package duplicates.controller;
 
+import duplicates.model.FileEntry;
+
 import java.io.File;
 import java.util.*;
 
@@ -19,8 +21,13 @@ public class FileAccessController {
      */
     public File[] getSubFolders(File folder) {
         if (folder != null && folder.isDirectory() && folder.canRead()) {
-            File[] files = folder.listFiles(File::isDirectory);
-            return files != null ? files : new File[0];
+            List<File> dirs = new ArrayList<>();
+            try {
+                DirectoryWalker.list(folder, entry -> { }, dirs::add);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return dirs.toArray(new File[0]);
         }
         return new File[0];
     }
@@ -47,7 +54,8 @@ public class FileAccessController {
                                                   boolean fileExtensionBoolean,
                                                   String[] fileExtensionList) {
 
-        List<File> allFiles = new ArrayList<>();
+        // Größe & Co. werden beim Listen einmal gelesen und bis zur Gruppierung mitgeführt
+        List<FileEntry> allFiles = new ArrayList<>();
         for (File folder : folderList) {
             collectFiles(folder, allFiles, subFolder);
         }
@@ -61,13 +69,11 @@ public class FileAccessController {
         }
 
         // --- Filterung nach Größe und Dateiendung ---
-        List<File> filteredFiles = new ArrayList<>();
-        for (File file : allFiles) {
-            if (!file.isFile()) continue;
-
+        List<FileEntry> filteredFiles = new ArrayList<>();
+        for (FileEntry entry : allFiles) {
             // Dateiendung prüfen
             if (fileExtensionBoolean) {
-                String name = file.getName();
+                String name = entry.file().getName();
                 int dotIndex = name.lastIndexOf('.');
                 if (dotIndex < 0) continue; // keine Endung -> ignorieren
                 String ext = name.substring(dotIndex + 1).toLowerCase();
@@ -75,18 +81,18 @@ public class FileAccessController {
             }
 
             // Größe prüfen
-            double sizeMB = file.length() / (1024.0 * 1024.0);
+            double sizeMB = entry.size() / (1024.0 * 1024.0);
             if (sizeMB < minFileSize) continue;
             if (maxFileSize > 0 && sizeMB > maxFileSize) continue;
 
-            filteredFiles.add(file);
+            filteredFiles.add(entry);
         }
 
         // --- Gruppierung ---
         Map<String, DuplicateGroup> groups = new HashMap<>();
-        for (File file : filteredFiles) {
-            String key = buildKey(file, fileSize, fileName, fileExtensionBoolean);
-            groups.computeIfAbsent(key, DuplicateGroup::new).addFile(file);
+        for (FileEntry entry : filteredFiles) {
+            String key = buildKey(entry, fileSize, fileName, fileExtensionBoolean);
+            groups.computeIfAbsent(key, DuplicateGroup::new).addFile(entry.file());
         }
 
         // --- Nur Gruppen mit mehr als 1 Datei behalten ---
@@ -100,18 +106,18 @@ public class FileAccessController {
         return result;
     }
 
-    /** Hilfsmethode: rekursives Sammeln aller Dateien */
-    private void collectFiles(File folder, List<File> list, boolean includeSubfolders) {
-        if (folder == null || !folder.exists()) return;
-        File[] files = folder.listFiles();
-        if (files == null) return;
-
-        for (File f : files) {
-            if (f.isDirectory() && includeSubfolders) {
-                collectFiles(f, list, true);
-            } else if (f.isFile()) {
-                list.add(f);
+    /** Hilfsmethode: Sammeln aller Dateien (gestreamt gelistet, ein stat je Eintrag) */
+    private void collectFiles(File folder, List<FileEntry> list, boolean includeSubfolders) {
+        if (folder == null) return;
+        Deque<File> stack = new ArrayDeque<>();
+        stack.push(folder);
+        try {
+            while (!stack.isEmpty()) {
+                DirectoryWalker.list(stack.pop(), list::add,
+                        includeSubfolders ? stack::push : DirectoryWalker.IGNORE_DIRS);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -121,7 +127,8 @@ public class FileAccessController {
      * Wenn nur Dateigröße relevant ist, entsteht z.B. "SIZE=12345"
      * Wenn Name+Größe relevant sind, "NAME=bild.jpg|SIZE=12345"
      */
-    private String buildKey(File file, boolean useSize, boolean useName, boolean useExt) {
+    private String buildKey(FileEntry entry, boolean useSize, boolean useName, boolean useExt) {
+        File file = entry.file();
         StringBuilder key = new StringBuilder();
 
         if (useName) {
@@ -133,7 +140,7 @@ public class FileAccessController {
             key.append("|EXT=").append(ext.toLowerCase());
         }
         if (useSize) {
-            key.append("|SIZE=").append(file.length());
+            key.append("|SIZE=").append(entry.size());
         }
 
         // Falls nichts zum Vergleich aktiviert ist, wird der Pfad genommen (damit keine falschen Gruppen entstehen)
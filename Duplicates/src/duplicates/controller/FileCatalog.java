@@ -0,0 +1,284 @@
+package duplicates.controller;
+
+import duplicates.model.FileEntry;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spaltenorientierter Datei-Katalog für sehr große Bestände (zig Millionen Dateien).
+ *
+ * Statt je Datei ein {@code File} plus Modell mit Strings und {@code LocalDate}s zu halten,
+ * liegt jede Eigenschaft in einem primitiven Array (Größe, Änderungs-/Erstellungszeit, Inode),
+ * Ordner und Dateiendungen als int-Index in gemeinsame Wörterbücher, Dateinamen als UTF-8 in
+ * einem gemeinsamen Byte-Puffer. Das sind rund 50 Byte je Datei statt mehrerer hundert.
+ *
+ * Gruppiert wird über {@link #sortedBySize()} (primitive Sortierung), nicht über eine Map je Größe.
+ * Objekte ({@link FileEntry}) entstehen erst über {@link #entry(int)} – nur für Zeilen, deren
+ * Größe mehrfach vorkommt.
+ *
+ * Nicht thread-sicher: wird von genau einem Thread befüllt.
+ */
+public class FileCatalog {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Gerät/Inode unbekannt (Dateisystem liefert keinen fileKey, z. B. Windows). */
+    private static final long NO_INODE = -1L;
+
+    private int rows;
+    private long[] sizes = new long[INITIAL_CAPACITY];
+    private long[] modified = new long[INITIAL_CAPACITY];
+    private long[] created = new long[INITIAL_CAPACITY];
+    private long[] inodes = new long[INITIAL_CAPACITY];
+    private int[] dirIds = new int[INITIAL_CAPACITY];
+    private int[] extIds = new int[INITIAL_CAPACITY];
+    private int[] nameStart = new int[INITIAL_CAPACITY + 1];
+    private byte[] names = new byte[INITIAL_CAPACITY * 16];
+
+    // Ordner-Wörterbuch (Gerät je Ordner: alle Dateien eines Ordners liegen auf demselben Gerät)
+    private final Map<String, Integer> dirIndex = new HashMap<>();
+    private final List<String> dirPaths = new ArrayList<>();
+    private long[] dirDevices = new long[INITIAL_CAPACITY];
+    private String lastDir;
+    private int lastDirId = -1;
+
+    // Endungs-Wörterbuch
+    private final Map<String, Integer> extIndex = new HashMap<>();
+    private final List<String> extensions = new ArrayList<>();
+
+    /** Nimmt eine Datei auf und liefert ihre Zeilennummer. */
+    public int add(FileEntry entry) {
+        if (rows == sizes.length) grow();
+        int row = rows;
+
+        File file = entry.file();
+        String name = file.getName();
+        sizes[row] = entry.size();
+        modified[row] = entry.modifiedMillis();
+        created[row] = entry.createdMillis();
+
+        long[] devIno = parseFileKey(entry.fileKey());
+        int dirId = dirId(file.getParent(), devIno[0]);
+        dirIds[row] = dirId;
+        inodes[row] = devIno[1];
+        extIds[row] = extId(name);
+
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        int start = nameStart[row];
+        if (start + utf8.length > names.length) {
+            long needed = (long) start + utf8.length;
+            if (needed > Integer.MAX_VALUE - 8) throw new IllegalStateException("Namenspuffer des Katalogs voll");
+            names = Arrays.copyOf(names, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, names.length * 2L)));
+        }
+        System.arraycopy(utf8, 0, names, start, utf8.length);
+        nameStart[row + 1] = start + utf8.length;
+
+        rows++;
+        return row;
+    }
+
+    /** Anzahl Zeilen. */
+    public int size() {
+        return rows;
+    }
+
+    public long getSize(int row) {
+        return sizes[row];
+    }
+
+    public String getName(int row) {
+        return new String(names, nameStart[row], nameStart[row + 1] - nameStart[row], StandardCharsets.UTF_8);
+    }
+
+    public String getParentPath(int row) {
+        return dirPaths.get(dirIds[row]);
+    }
+
+    /** Dateiendung (klein geschrieben, gemeinsame Instanz aus dem Wörterbuch). */
+    public String getExtension(int row) {
+        return extensions.get(extIds[row]);
+    }
+
+    public File getFile(int row) {
+        String parent = getParentPath(row);
+        return parent != null ? new File(parent, getName(row)) : new File(getName(row));
+    }
+
+    /** Baut den Eintrag einer Zeile wieder auf (für den Abgleich). */
+    public FileEntry entry(int row) {
+        long dev = dirDevices[dirIds[row]];
+        Object key = inodes[row] != NO_INODE && dev != NO_INODE ? new InodeKey(dev, inodes[row]) : null;
+        return new FileEntry(getFile(row), sizes[row], created[row], modified[row], key);
+    }
+
+    /**
+     * Zeilennummern aufsteigend nach Größe sortiert; gleich große Dateien stehen dadurch
+     * hintereinander und bilden die Kandidaten-Gruppen.
+     */
+    public int[] sortedBySize() {
+        int[] order = new int[rows];
+        long[] keys = Arrays.copyOf(sizes, rows);
+        for (int i = 0; i < rows; i++) order[i] = i;
+        sort(keys, order, 0, rows - 1);
+        return order;
+    }
+
+    /** Grobe Speicherbelegung in Byte (für Statuszeile/Log). */
+    public long estimateMemoryBytes() {
+        long perRow = 4L * Long.BYTES + 3L * Integer.BYTES;
+        long dirs = 0;
+        for (String d : dirPaths) dirs += 48 + 2L * (d != null ? d.length() : 0);
+        return sizes.length * perRow + names.length + dirs + extensions.size() * 48L;
+    }
+
+    // --- Interna ---
+
+    private void grow() {
+        int capacity = sizes.length * 2;
+        sizes = Arrays.copyOf(sizes, capacity);
+        modified = Arrays.copyOf(modified, capacity);
+        created = Arrays.copyOf(created, capacity);
+        inodes = Arrays.copyOf(inodes, capacity);
+        dirIds = Arrays.copyOf(dirIds, capacity);
+        extIds = Arrays.copyOf(extIds, capacity);
+        nameStart = Arrays.copyOf(nameStart, capacity + 1);
+    }
+
+    private int dirId(String parent, long device) {
+        // Der Walker liefert die Dateien eines Ordners hintereinander
+        if (lastDirId >= 0 && (parent == null ? lastDir == null : parent.equals(lastDir))) return lastDirId;
+        Integer id = dirIndex.get(parent);
+        if (id == null) {
+            id = dirPaths.size();
+            dirPaths.add(parent);
+            dirIndex.put(parent, id);
+            if (id == dirDevices.length) dirDevices = Arrays.copyOf(dirDevices, id * 2);
+            dirDevices[id] = device;
+        }
+        lastDir = parent;
+        lastDirId = id;
+        return id;
+    }
+
+    private int extId(String name) {
+        int dot = name.lastIndexOf('.');
+        String ext = dot > 0 && dot < name.length() - 1 ? name.substring(dot + 1).toLowerCase() : "";
+        Integer id = extIndex.get(ext);
+        if (id == null) {
+            id = extensions.size();
+            extensions.add(ext);
+            extIndex.put(ext, id);
+        }
+        return id;
+    }
+
+    /**
+     * Gerät und Inode aus dem fileKey. Unter Unix liefert das JDK "(dev=&lt;hex&gt;,ino=&lt;dezimal&gt;)";
+     * andere Formate (oder null) gelten als unbekannt.
+     */
+    static long[] parseFileKey(Object fileKey) {
+        long[] devIno = {NO_INODE, NO_INODE};
+        if (fileKey == null) return devIno;
+        if (fileKey instanceof InodeKey k) {
+            devIno[0] = k.device;
+            devIno[1] = k.inode;
+            return devIno;
+        }
+        String s = fileKey.toString();
+        int dev = s.indexOf("dev=");
+        int ino = s.indexOf(",ino=");
+        if (dev < 0 || ino < dev) return devIno;
+        try {
+            int end = s.indexOf(')', ino);
+            devIno[0] = Long.parseUnsignedLong(s.substring(dev + 4, ino), 16);
+            devIno[1] = Long.parseUnsignedLong(s.substring(ino + 5, end < 0 ? s.length() : end));
+        } catch (NumberFormatException e) {
+            devIno[0] = NO_INODE;
+            devIno[1] = NO_INODE;
+        }
+        return devIno;
+    }
+
+    /**
+     * Wiederhergestellter fileKey. toString() entspricht dem des JDK, damit der Hash-Cache
+     * Einträge aus Läufen ohne Katalog weiter erkennt.
+     */
+    static final class InodeKey {
+        final long device;
+        final long inode;
+
+        InodeKey(long device, long inode) {
+            this.device = device;
+            this.inode = inode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof InodeKey k && k.device == device && k.inode == inode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(device * 31 + inode);
+        }
+
+        @Override
+        public String toString() {
+            return "(dev=" + Long.toHexString(device) + ",ino=" + Long.toUnsignedString(inode) + ")";
+        }
+    }
+
+    /** Quicksort über die Schlüssel, die Zeilennummern werden mitgetauscht (auch für LSH-Bänder). */
+    static void sort(long[] keys, int[] order, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            // Median aus drei als Pivot
+            if (keys[mid] < keys[lo]) swap(keys, order, mid, lo);
+            if (keys[hi] < keys[lo]) swap(keys, order, hi, lo);
+            if (keys[hi] < keys[mid]) swap(keys, order, hi, mid);
+            long pivot = keys[mid];
+
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) swap(keys, order, i++, j--);
+            }
+            // Kleinere Hälfte rekursiv, größere iterativ: Stacktiefe bleibt logarithmisch
+            if (j - lo < hi - i) {
+                sort(keys, order, lo, j);
+                lo = i;
+            } else {
+                sort(keys, order, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            long k = keys[i];
+            int o = order[i];
+            int j = i - 1;
+            while (j >= lo && keys[j] > k) {
+                keys[j + 1] = keys[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            order[j + 1] = o;
+        }
+    }
+
+    private static void swap(long[] keys, int[] order, int a, int b) {
+        long k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        int o = order[a];
+        order[a] = order[b];
+        order[b] = o;
+    }
+}
@@ -0,0 +1,161 @@
+package duplicates.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Byte-für-Byte-Vergleich gleich großer Dateien im Gleichschritt.
+ * Alle Kandidaten werden blockweise parallel gelesen; beim ersten abweichenden Block
+ * trennen sich die Wege, Einzelgänger werden sofort geschlossen und nicht weiter gelesen.
+ */
+public class FileContentComparator {
+
+    /** Blockgröße pro Datei (wird bei vielen Kandidaten verkleinert). */
+    private static final int BLOCK_SIZE = 1024 * 1024;
+
+    /** Obergrenze für alle Lesepuffer eines Vergleichs zusammen. */
+    private static final int MAX_BUFFER_TOTAL = 32 * 1024 * 1024;
+
+    private static final int MIN_BLOCK_SIZE = 64 * 1024;
+
+    /** Lesepuffer je Worker-Thread, in Blöcke je Kandidat geteilt (statt je Vergleich neu anzulegen). */
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(0));
+
+    /** Größere Puffer (viele Kandidaten) werden nur für den einen Vergleich angelegt. */
+    private static final int MAX_RETAINED_BUFFER = 2 * BLOCK_SIZE;
+
+    private FileContentComparator() {
+    }
+
+    /**
+     * Teilt gleich große Kandidaten in Klassen mit identischem Inhalt auf.
+     * Klassen mit nur einer Datei sowie unlesbare Dateien fallen weg.
+     *
+     * @param group      Kandidaten (bereits aufgelöste Dateien, alle mit derselben Größe)
+     * @param size       gemeinsame Dateigröße
+     * @param cancelled  Abbruch-Abfrage, wird nach jedem Block geprüft
+     * @param unreadable erhält jede Datei, die sich nicht öffnen oder lesen ließ
+     * @return Klassen mit mindestens zwei inhaltsgleichen Dateien
+     */
+    public static List<List<File>> partition(List<File> group, long size, BooleanSupplier cancelled,
+                                             Consumer<File> unreadable) {
+        if (group.size() < 2) return List.of();
+
+        // nie größer als die Datei selbst: kleine Dateien brauchen nur kleine Puffer
+        int blockSize = (int) Math.min(Math.max(1, size),
+                Math.max(MIN_BLOCK_SIZE, Math.min(BLOCK_SIZE, MAX_BUFFER_TOTAL / group.size())));
+        ByteBuffer buffers = buffers(group.size() * blockSize);
+
+        List<Candidate> open = new ArrayList<>(group.size());
+        try {
+            for (File file : group) {
+                try {
+                    open.add(new Candidate(file, buffers.slice(open.size() * blockSize, blockSize)));
+                } catch (IOException e) {
+                    unreadable.accept(file); // kann kein Duplikat sein
+                }
+            }
+
+            List<List<Candidate>> classes = new ArrayList<>();
+            if (open.size() > 1) classes.add(open);
+
+            for (long pos = 0; pos < size && !classes.isEmpty(); pos += blockSize) {
+                if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) return List.of();
+
+                List<List<Candidate>> next = new ArrayList<>();
+                for (List<Candidate> cls : classes) {
+                    List<List<Candidate>> split = new ArrayList<>();
+                    for (Candidate c : cls) {
+                        if (!c.readBlock(pos)) {
+                            unreadable.accept(c.file);
+                            continue;
+                        }
+                        List<Candidate> target = null;
+                        for (List<Candidate> s : split) {
+                            if (s.get(0).buffer.equals(c.buffer)) {
+                                target = s;
+                                break;
+                            }
+                        }
+                        if (target == null) {
+                            target = new ArrayList<>();
+                            split.add(target);
+                        }
+                        target.add(c);
+                    }
+                    for (List<Candidate> s : split) {
+                        if (s.size() > 1) {
+                            next.add(s);
+                        } else {
+                            s.get(0).close(); // Einzelgänger: nicht weiterlesen
+                        }
+                    }
+                }
+                classes = next;
+            }
+
+            List<List<File>> result = new ArrayList<>(classes.size());
+            for (List<Candidate> cls : classes) {
+                List<File> files = new ArrayList<>(cls.size());
+                for (Candidate c : cls) files.add(c.file);
+                result.add(files);
+            }
+            return result;
+        } finally {
+            for (Candidate c : open) c.close();
+        }
+    }
+
+    private static ByteBuffer buffers(int capacity) {
+        ByteBuffer buffer = BUFFER.get();
+        if (buffer.capacity() >= capacity) return buffer;
+        buffer = ByteBuffer.allocate(capacity);
+        if (capacity <= MAX_RETAINED_BUFFER) BUFFER.set(buffer);
+        return buffer;
+    }
+
+    /** Offene Datei samt Lesepuffer. */
+    private static final class Candidate {
+        final File file;
+        final FileChannel channel;
+        final ByteBuffer buffer;
+
+        Candidate(File file, ByteBuffer buffer) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.buffer = buffer;
+        }
+
+        /** Liest den Block ab pos vollständig (bzw. bis Dateiende). false = Lesefehler. */
+        boolean readBlock(long pos) {
+            buffer.clear();
+            try {
+                long p = pos;
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, p);
+                    if (read < 0) break;
+                    p += read;
+                }
+                buffer.flip();
+                return true;
+            } catch (IOException e) {
+                close();
+                return false;
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
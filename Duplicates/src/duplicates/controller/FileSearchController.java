@@ -1,25 +1,28 @@
 package duplicates.controller;
 
+import duplicates.model.FileEntry;
 import duplicates.model.FileSearchModel;
 import duplicates.model.FileSearchOptionsModel;
+import duplicates.model.PathDictionary;
 
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.LinkOption;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 
 /**
  * Controller für die Dateisuche.
  * Skalierbare, iterative Traversierung mit Streaming-Ergebnissen, Fortschritt und Abbruch.
+ * Der Fortschritt wird während der Traversierung geschätzt ({@link ProgressEstimator}),
+ * ein vorgelagerter Zähldurchlauf entfällt.
+ * Mit {@link FileSearchOptionsModel#getDirectoryThreads()} &gt; 1 werden Verzeichnisse parallel
+ * auf einem ForkJoinPool gelistet; Treffer gehen trotzdem nur vom aufrufenden Thread an den Consumer.
  */
 public class FileSearchController {
 
@@ -31,6 +34,10 @@ public class FileSearchController {
         return t;
     });
 
+    /** Offenes Verzeichnis samt Dateizahl aus dem Snapshot (-1 = unbekannt). */
+    private record OpenDir(File dir, int knownFiles) {
+    }
+
     /**
      * Asynchron starten (bequem aus der UI nutzbar).
      * Abbruch via {@link #cancel()}.
@@ -68,35 +75,58 @@ public class FileSearchController {
 
         cancelled.set(false);
 
-        // 1) Gesamtzahl der Dateien bestimmen (für Prozentanzeige)
-        int total = countFiles(selectedFolders, options.isSubFolderBoo());
-        final int[] counter = {0};
-        final int[] lastProgress = {-1};
+        // Überlappende Auswahl (z. B. /data und /data/photos) nur einmal durchlaufen
+        List<String> roots = SearchRoots.normalize(selectedFolders, options.isSubFolderBoo());
+
+        // Inkrementell: unveränderte Ordner werden aus dem Snapshot des letzten Laufs bedient
+        DirectorySnapshot snapshot = options.isIncrementalScan() ? DirectorySnapshot.getDefault() : null;
+
+        int threads = options.getDirectoryThreads();
+
+        // Pfade der Treffer teilen sich die Ordner-Knoten eines Wörterbuchs je Suche
+        PathDictionary paths = new PathDictionary();
+
+        // 1) Fortschritt schätzen statt vorab zu zählen; Startwert = Dateizahl des letzten Laufs
+        String totalsKey = XMLController.scanTotalsKey(roots, options.isSubFolderBoo());
+        ProgressEstimator progress = new ProgressEstimator(XMLController.readScanTotal(totalsKey));
         final long[] nextUpdateNs = {0L}; // Drosselung für UI-Updates
 
-        updateProgress(progressUpdater, 0, total, lastProgress, nextUpdateNs, true);
-
-        // 2) Iterative Traversierung aller Startordner
-        for (String folderPath : selectedFolders) {
-            if (cancelled.get()) break;
-
-            File root = new File(folderPath);
-            if (root.exists() && root.isDirectory()) {
-                collectAndProcessFilesIterative(
-                        root,
-                        options.isSubFolderBoo(),
-                        options,
-                        resultConsumer,
-                        progressUpdater,
-                        counter,
-                        total,
-                        lastProgress,
-                        nextUpdateNs
-                );
+        safeAccept(progressUpdater, 0);
+        long scan = snapshot != null ? snapshot.startScan() : 0L;
+
+        // 2) Traversierung aller Startordner
+        if (threads > 1) {
+            searchFilesParallel(roots, snapshot, options, threads, paths, resultConsumer, progressUpdater,
+                    progress, nextUpdateNs);
+        } else {
+            for (String folderPath : roots) {
+                if (cancelled.get()) break;
+
+                File root = new File(folderPath);
+                if (root.exists() && root.isDirectory()) {
+                    collectAndProcessFilesIterative(
+                            root,
+                            options.isSubFolderBoo(),
+                            snapshot,
+                            options,
+                            paths,
+                            resultConsumer,
+                            progressUpdater,
+                            progress,
+                            nextUpdateNs
+                    );
+                }
             }
         }
 
+        if (snapshot != null) {
+            // vollständig durchlaufen: nicht mehr vorhandene Ordner vergessen
+            if (!cancelled.get() && options.isSubFolderBoo()) snapshot.prune(roots, scan);
+            snapshot.save();
+        }
+
         if (!cancelled.get()) {
+            XMLController.saveScanTotal(totalsKey, progress.getProcessed());
             safeAccept(progressUpdater, 100);
         }
     }
@@ -104,96 +134,205 @@ public class FileSearchController {
     // --- Iterative Traversierung: robust & cancel-freundlich ---
     private void collectAndProcessFilesIterative(File startFolder,
                                                  boolean includeSubfolders,
+                                                 DirectorySnapshot snapshot,
                                                  FileSearchOptionsModel options,
+                                                 PathDictionary paths,
                                                  Consumer<FileSearchModel> resultConsumer,
                                                  IntConsumer progressUpdater,
-                                                 int[] counter,
-                                                 int total,
-                                                 int[] lastProgress,
+                                                 ProgressEstimator progress,
                                                  long[] nextUpdateNs) {
 
-        Deque<File> stack = new ArrayDeque<>();
-        stack.push(startFolder);
+        Deque<OpenDir> stack = new ArrayDeque<>();
+        stack.push(open(startFolder, snapshot, progress));
 
         while (!stack.isEmpty()) {
             if (cancelled.get()) return;
 
-            File dir = stack.pop();
-            File[] entries = safeListFiles(dir);
-            if (entries == null) continue;
+            OpenDir next = stack.pop();
+            progress.directoryStarted(next.knownFiles());
 
-            for (File f : entries) {
-                if (cancelled.get()) return;
+            listDirectory(next.dir(), snapshot, includeSubfolders, entry -> {
+                checkCancelled();
+                progress.fileProcessed();
 
-                if (f.isDirectory()) {
-                    if (includeSubfolders) {
-                        stack.push(f);
-                    }
-                    continue;
+                // Filter prüfen & ggf. melden (Attribute stammen aus dem Listing, kein weiterer stat)
+                if (matchesOptions(entry, options)) {
+                    safeAccept(resultConsumer, new FileSearchModel(entry, paths));
                 }
 
-                if (f.isFile()) {
-                    counter[0]++;
-
-                    // Filter prüfen & ggf. melden
-                    if (matchesOptions(f, options)) {
-                        safeAccept(resultConsumer, new FileSearchModel(f));
-                    }
+                updateProgress(progressUpdater, progress, nextUpdateNs);
+            }, sub -> stack.push(open(sub, snapshot, progress)));
 
-                    updateProgress(progressUpdater, counter[0], total, lastProgress, nextUpdateNs, false);
-                }
-            }
+            progress.directoryFinished();
         }
     }
 
-    // --- Dateien zählen (für Prozentberechnung), ebenfalls iterativ & cancel-aware ---
-    private int countFiles(List<String> selectedFolders, boolean includeSubfolders) {
-        int total = 0;
+    /** Verzeichnis auf die Front setzen; die Dateizahl aus dem Snapshot verfeinert die Schätzung. */
+    private static OpenDir open(File dir, DirectorySnapshot snapshot, ProgressEstimator progress) {
+        DirectorySnapshot.DirEntry known = snapshot != null ? snapshot.get(dir) : null;
+        OpenDir open = new OpenDir(dir, known != null ? known.getFileCount() : -1);
+        progress.directoryQueued(open.knownFiles());
+        return open;
+    }
 
-        for (String folderPath : selectedFolders) {
-            if (cancelled.get()) break;
+    // --- Parallele Traversierung (Verzeichnis-Ebene) ---
 
-            File root = new File(folderPath);
-            if (!(root.exists() && root.isDirectory())) continue;
+    /**
+     * Treffer sammeln die Worker in einer Queue; der aufrufende Thread gibt sie alle ~50 ms
+     * gebündelt an den Consumer weiter. So bleibt der Consumer single-threaded wie bisher.
+     */
+    private void searchFilesParallel(List<String> roots,
+                                     DirectorySnapshot snapshot,
+                                     FileSearchOptionsModel options,
+                                     int threads,
+                                     PathDictionary paths,
+                                     Consumer<FileSearchModel> resultConsumer,
+                                     IntConsumer progressUpdater,
+                                     ProgressEstimator progress,
+                                     long[] nextUpdateNs) {
+
+        ConcurrentLinkedQueue<FileSearchModel> matches = new ConcurrentLinkedQueue<>();
+
+        walkParallel(roots, options.isSubFolderBoo(), snapshot, threads, progress, entry -> {
+            if (matchesOptions(entry, options)) {
+                matches.add(new FileSearchModel(entry, paths));
+            }
+        }, () -> {
+            FileSearchModel model;
+            while (!cancelled.get() && (model = matches.poll()) != null) {
+                safeAccept(resultConsumer, model);
+            }
+            updateProgress(progressUpdater, progress, nextUpdateNs);
+        });
+    }
 
-            Deque<File> stack = new ArrayDeque<>();
-            stack.push(root);
+    /**
+     * Listet alle Verzeichnisse auf einem eigenen ForkJoinPool, ruft für jede Datei
+     * {@code fileVisitor} (auf den Worker-Threads) auf und zählt gelistete Verzeichnisse und
+     * Dateien in {@code progress}. {@code drain} läuft auf dem aufrufenden Thread, bis alles
+     * gelistet ist, und ein letztes Mal danach. Kehrt bei Abbruch sofort zurück.
+     */
+    private void walkParallel(List<String> roots,
+                              boolean includeSubfolders,
+                              DirectorySnapshot snapshot,
+                              int threads,
+                              ProgressEstimator progress,
+                              Consumer<FileEntry> fileVisitor,
+                              Runnable drain) {
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("Duplicates-FileSearch-Dir-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+
+        // Offene Verzeichnis-Tasks; bei 0 ist die Traversierung fertig
+        AtomicInteger pending = new AtomicInteger(1);
+        CountDownLatch done = new CountDownLatch(1);
 
-            while (!stack.isEmpty()) {
-                if (cancelled.get()) return total;
+        try {
+            for (String folderPath : roots) {
+                File root = new File(folderPath);
+                if (root.exists() && root.isDirectory()) {
+                    pending.incrementAndGet();
+                    OpenDir open = open(root, snapshot, progress);
+                    pool.execute(new DirectoryTask(open, includeSubfolders, snapshot, progress, fileVisitor, pending, done));
+                }
+            }
+            if (pending.decrementAndGet() == 0) done.countDown();
 
-                File dir = stack.pop();
-                File[] entries = safeListFiles(dir);
-                if (entries == null) continue;
+            while (!cancelled.get()) {
+                boolean finished = done.await(50, TimeUnit.MILLISECONDS);
+                drain.run();
+                if (finished) break;
+            }
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-                for (File f : entries) {
-                    if (cancelled.get()) return total;
+    /** Listet ein Verzeichnis und zweigt für jedes Unterverzeichnis einen eigenen Task ab. */
+    private final class DirectoryTask extends RecursiveAction {
+        private final OpenDir dir;
+        private final boolean includeSubfolders;
+        private final DirectorySnapshot snapshot;
+        private final ProgressEstimator progress;
+        private final Consumer<FileEntry> fileVisitor;
+        private final AtomicInteger pending;
+        private final CountDownLatch done;
+
+        DirectoryTask(OpenDir dir, boolean includeSubfolders, DirectorySnapshot snapshot, ProgressEstimator progress,
+                      Consumer<FileEntry> fileVisitor, AtomicInteger pending, CountDownLatch done) {
+            this.dir = dir;
+            this.includeSubfolders = includeSubfolders;
+            this.snapshot = snapshot;
+            this.progress = progress;
+            this.fileVisitor = fileVisitor;
+            this.pending = pending;
+            this.done = done;
+        }
 
-                    if (f.isDirectory()) {
-                        if (includeSubfolders) stack.push(f);
-                    } else if (f.isFile()) {
-                        total++;
-                    }
-                }
+        @Override
+        protected void compute() {
+            try {
+                if (!cancelled.get()) visit();
+            } catch (RuntimeException e) {
+                // Verzeichnis überspringen, wie im sequentiellen Durchlauf
+            } finally {
+                if (pending.decrementAndGet() == 0) done.countDown();
             }
         }
-        return total;
+
+        private void visit() {
+            progress.directoryStarted(dir.knownFiles());
+            listDirectory(dir.dir(), snapshot, includeSubfolders, entry -> {
+                checkCancelled();
+                progress.fileProcessed();
+                fileVisitor.accept(entry);
+            }, this::fork);
+            progress.directoryFinished();
+        }
+
+        private void fork(File sub) {
+            pending.incrementAndGet();
+            new DirectoryTask(open(sub, snapshot, progress), includeSubfolders, snapshot, progress,
+                    fileVisitor, pending, done).fork();
+        }
     }
 
-    private File[] safeListFiles(File dir) {
+    /**
+     * Listet ein Verzeichnis aus dem Snapshot oder per DirectoryStream (gestreamt, ein stat je Eintrag).
+     * Wirft ein Sink wegen Abbruchs, endet das Listing vorzeitig.
+     */
+    private void listDirectory(File dir, DirectorySnapshot snapshot, boolean includeSubfolders,
+                               DirectoryWalker.Sink<FileEntry> files, DirectoryWalker.Sink<File> dirs) {
+        DirectoryWalker.Sink<File> subDirs = includeSubfolders ? dirs : DirectoryWalker.IGNORE_DIRS;
         try {
-            return dir.listFiles();
-        } catch (SecurityException | OutOfMemoryError ignored) {
-            return null;
+            if (snapshot != null) {
+                snapshot.list(dir, files, subDirs);
+            } else {
+                DirectoryWalker.list(dir, files, subDirs);
+            }
+        } catch (InterruptedException e) {
+            // Abbruch: cancelled ist bereits gesetzt
         }
     }
 
+    private void checkCancelled() throws InterruptedException {
+        if (cancelled.get()) throw new InterruptedException("Suche abgebrochen");
+    }
+
     // --- Filterlogik ---
-    private boolean matchesOptions(File file, FileSearchOptionsModel options) {
+    private boolean matchesOptions(FileEntry entry, FileSearchOptionsModel options) {
         try {
             // 1) Frühe Checks: Größe in Byte
             if (options.getMinFileSize() > 0 || options.getMaxFileSize() > 0) {
-                long sizeBytes = file.length(); // jetzt korrekt in Byte
+                long sizeBytes = entry.size();
                 if (options.getMinFileSize() > 0 && sizeBytes < options.getMinFileSize()) return false;
                 if (options.getMaxFileSize() > 0 && sizeBytes > options.getMaxFileSize()) return false;
             }
@@ -205,19 +344,14 @@ public class FileSearchController {
             boolean needsModified = (options.getModificationDate() != null);
 
             if (needsCreation || needsModified) {
-                BasicFileAttributes attrs = Files.readAttributes(
-                        file.toPath(), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
-
                 if (needsCreation) {
-                    LocalDate creationDate = attrs.creationTime().toInstant()
-                            .atZone(ZoneId.systemDefault()).toLocalDate();
+                    LocalDate creationDate = entry.creationDate();
                     String op = normalizeOp(options.getFileCreationDateOperator());
                     if (!compareDate(creationDate, options.getCreationDate(), op)) return false;
                 }
 
                 if (needsModified) {
-                    LocalDate modifiedDate = attrs.lastModifiedTime().toInstant()
-                            .atZone(ZoneId.systemDefault()).toLocalDate();
+                    LocalDate modifiedDate = entry.modificationDate();
                     String op = normalizeOp(options.getFileModificationDateOperator());
                     if (!compareDate(modifiedDate, options.getModificationDate(), op)) return false;
                 }
@@ -255,26 +389,19 @@ public class FileSearchController {
         };
     }
 
-    // --- Fortschrittsanzeige (gedrosselt & nur bei Änderungen) ---
+    // --- Fortschrittsanzeige (gedrosselt auf ~50 ms, nur steigende Werte) ---
     private void updateProgress(IntConsumer progressUpdater,
-                                int current,
-                                int total,
-                                int[] lastProgress,
-                                long[] nextUpdateNs,
-                                boolean force) {
+                                ProgressEstimator progress,
+                                long[] nextUpdateNs) {
 
-        if (progressUpdater == null || total <= 0) return;
+        if (progressUpdater == null) return;
 
-        int p = (int) Math.floor((current * 100.0) / total);
         long now = System.nanoTime();
+        if (now < nextUpdateNs[0]) return; // UI nicht fluten
+        nextUpdateNs[0] = now + 50_000_000L; // 50ms
 
-        // UI nicht fluten: nur bei Änderung ODER alle ~50ms
-        boolean timeOk = now >= nextUpdateNs[0];
-        if (force || p != lastProgress[0] || timeOk) {
-            lastProgress[0] = p;
-            nextUpdateNs[0] = now + 50_000_000L; // 50ms
-            safeAccept(progressUpdater, p);
-        }
+        int p = progress.nextPercent();
+        if (p >= 0) safeAccept(progressUpdater, p);
     }
 
     // --- Hilfsfunktionen ---
@@ -0,0 +1,223 @@
+package duplicates.controller;
+
+import duplicates.model.Digest;
+import duplicates.model.DuplicateSearchModel;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistenter Hash-Cache unter "cache/hashes.dat" (neben "results/" und "settings/").
+ *
+ * Schlüssel: Hash-Verfahren + kanonischer Pfad. Ein Eintrag gilt nur, solange Größe,
+ * Änderungszeit und {@code fileKey()} (Gerät + Inode, falls vom Dateisystem geliefert) passen.
+ * Neue Einträge werden als Journal angehängt; {@link #flush()} verdichtet die Datei, wenn sie
+ * überwiegend aus überholten Datensätzen besteht oder die Obergrenze überschritten ist.
+ */
+public class HashCache {
+
+    private static final String CACHE_PATH = "cache/hashes.dat";
+    private static final int MAGIC = 0x44484332; // "DHC2" (Digest binär statt Hex)
+
+    /** Obergrenze für Einträge; bei Überschreitung fliegen die ältesten raus. */
+    private static final int MAX_ENTRIES = 2_000_000;
+
+    private static HashCache instance;
+
+    private final File file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private DataOutputStream journal;
+    private long recordsInFile;
+    private boolean dirty;
+
+    private static final class Entry {
+        final long size;
+        final long modified;
+        final String fileKey;
+        final Digest digest;
+        final long storedAt;
+
+        Entry(long size, long modified, String fileKey, Digest digest, long storedAt) {
+            this.size = size;
+            this.modified = modified;
+            this.fileKey = fileKey;
+            this.digest = digest;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private HashCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Gemeinsamer Cache des Programms (wird beim ersten Zugriff von der Platte geladen).
+     * Mehrere gleichzeitige Suchfenster teilen sich so eine Datei.
+     */
+    public static synchronized HashCache getDefault() {
+        if (instance == null) {
+            instance = new HashCache(new File(CACHE_PATH));
+            instance.load();
+        }
+        return instance;
+    }
+
+    /**
+     * Liefert den gespeicherten Digest, wenn die Datei seitdem unverändert ist, sonst null.
+     *
+     * @param file die bereits aufgelöste Datei des Modells
+     */
+    public Digest lookup(DuplicateSearchModel m, File file, HashStrategy strategy) {
+        String key = key(file, strategy);
+        if (key == null) return null;
+        Entry e = entries.get(key);
+        if (e == null) return null;
+        if (e.size != m.getFileSizeBytes() || e.modified != m.getLastModifiedMillis()
+                || !e.fileKey.equals(fileKeyOf(m))) {
+            return null;
+        }
+        return e.digest;
+    }
+
+    /** Merkt sich einen frisch berechneten Digest. */
+    public void store(DuplicateSearchModel m, File file, HashStrategy strategy, Digest digest) {
+        String key = key(file, strategy);
+        if (key == null || digest == null || digest.isUnreadable()) return;
+        Entry e = new Entry(m.getFileSizeBytes(), m.getLastModifiedMillis(), fileKeyOf(m), digest,
+                System.currentTimeMillis());
+        entries.put(key, e);
+        append(key, e);
+    }
+
+    /** Anzahl Einträge im Speicher. */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Schreibt das Journal weg und verdichtet bei Bedarf. Nach jeder Suche aufrufen.
+     */
+    public synchronized void flush() {
+        try {
+            if (journal != null) journal.flush();
+            if (dirty && (recordsInFile > 2L * entries.size() || entries.size() > MAX_ENTRIES)) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("Hash-Cache konnte nicht geschrieben werden: " + e.getMessage());
+        }
+    }
+
+    // --- Interna ---
+
+    private static String key(File file, HashStrategy strategy) {
+        try {
+            return strategy.getName() + '\u0000' + file.getCanonicalPath();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String fileKeyOf(DuplicateSearchModel m) {
+        Object k = m.getFileKey();
+        return k != null ? k.toString() : "";
+    }
+
+    private synchronized void append(String key, Entry e) {
+        try {
+            if (journal == null) {
+                File parent = file.getParentFile();
+                if (parent != null) parent.mkdirs();
+                boolean fresh = !file.exists() || file.length() == 0;
+                journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+                if (fresh) journal.writeInt(MAGIC);
+            }
+            writeRecord(journal, key, e);
+            recordsInFile++;
+            dirty = true;
+        } catch (IOException ex) {
+            System.err.println("Hash-Cache: Eintrag nicht gespeichert: " + ex.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                System.err.println("Hash-Cache: unbekanntes Format, wird neu angelegt");
+                file.delete();
+                return;
+            }
+            while (true) {
+                String key;
+                try {
+                    key = in.readUTF();
+                } catch (EOFException eof) {
+                    break;
+                }
+                long size = in.readLong();
+                long modified = in.readLong();
+                String fileKey = in.readUTF();
+                byte[] digest = new byte[in.readUnsignedByte()];
+                in.readFully(digest);
+                Entry e = new Entry(size, modified, fileKey, Digest.of(digest), in.readLong());
+                entries.put(key, e); // spätere Datensätze überschreiben frühere
+                recordsInFile++;
+            }
+        } catch (EOFException truncated) {
+            // abgebrochener letzter Datensatz (z. B. Absturz): sofort sauber neu schreiben,
+            // sonst wären spätere Anhänge hinter dem kaputten Rest nicht mehr lesbar
+            try {
+                compact();
+            } catch (IOException e) {
+                file.delete();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Hash-Cache konnte nicht gelesen werden: " + e.getMessage());
+        }
+    }
+
+    private void compact() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+
+        // Obergrenze: älteste Einträge verwerfen
+        if (entries.size() > MAX_ENTRIES) {
+            List<Map.Entry<String, Entry>> all = new ArrayList<>(entries.entrySet());
+            all.sort(Comparator.comparingLong(en -> en.getValue().storedAt));
+            for (int i = 0; i < all.size() - MAX_ENTRIES; i++) {
+                entries.remove(all.get(i).getKey());
+            }
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp, false)))) {
+            out.writeInt(MAGIC);
+            for (Map.Entry<String, Entry> en : entries.entrySet()) {
+                writeRecord(out, en.getKey(), en.getValue());
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        recordsInFile = entries.size();
+        dirty = false;
+    }
+
+    private static void writeRecord(DataOutputStream out, String key, Entry e) throws IOException {
+        out.writeUTF(key);
+        out.writeLong(e.size);
+        out.writeLong(e.modified);
+        out.writeUTF(e.fileKey);
+        byte[] digest = e.digest.toBytes();
+        out.writeByte(digest.length);
+        out.write(digest);
+        out.writeLong(e.storedAt);
+    }
+}
@@ -0,0 +1,169 @@
+package duplicates.controller;
+
+import duplicates.model.Digest;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+/**
+ * Registry der mitgelieferten Hash-Verfahren plus Kalibrierung für "AUTO".
+ */
+public final class HashStrategies {
+
+    /** Name in den Optionen: schnellstes Verfahren per Kalibrierung wählen. */
+    public static final String AUTO = "AUTO";
+
+    public static final HashStrategy XXH64 = new Simple("XXH64", 64, false) {
+        @Override
+        public Hasher newHasher() {
+            return new XxHash64();
+        }
+    };
+
+    /** CRC32C wird von der JVM auf x86/ARM per Hardware-Instruktion berechnet. */
+    public static final HashStrategy CRC32C = new Simple("CRC32C", 32, false) {
+        @Override
+        public Hasher newHasher() {
+            CRC32C crc = new CRC32C();
+            return new Hasher() {
+                @Override public void update(byte[] bytes, int offset, int length) { crc.update(bytes, offset, length); }
+                @Override public void update(ByteBuffer buffer) { crc.update(buffer); }
+                @Override public byte[] digest() { return ByteBuffer.allocate(4).putInt((int) crc.getValue()).array(); }
+                @Override public Digest finish() { return Digest.of32((int) crc.getValue()); }
+            };
+        }
+    };
+
+    public static final HashStrategy SHA_256 = messageDigest("SHA-256", 256);
+    public static final HashStrategy MD5 = messageDigest("MD5", 128);
+
+    private static final List<HashStrategy> ALL = List.of(XXH64, CRC32C, SHA_256, MD5);
+
+    // Ergebnis der Kalibrierung (einmal pro Programmlauf)
+    private static volatile HashStrategy fastest;
+    private static volatile HashStrategy fastestWide;
+
+    private HashStrategies() {
+    }
+
+    /** Alle Verfahren in Anzeigereihenfolge. */
+    public static List<HashStrategy> all() {
+        return ALL;
+    }
+
+    /** Namen für Auswahlboxen, beginnend mit {@link #AUTO}. */
+    public static String[] names() {
+        String[] names = new String[ALL.size() + 1];
+        names[0] = AUTO;
+        for (int i = 0; i < ALL.size(); i++) names[i + 1] = ALL.get(i).getName();
+        return names;
+    }
+
+    /**
+     * Löst einen Namen aus den Optionen auf. Unbekannt/leer/AUTO -> Kalibrierung.
+     *
+     * @param allowShortDigests auch Verfahren unter 64 Bit (CRC32C) erlauben,
+     *                          sinnvoll nur mit nachgeschalteter Bestätigung
+     */
+    public static HashStrategy resolve(String name, boolean allowShortDigests) {
+        if (name != null) {
+            for (HashStrategy s : ALL) {
+                if (s.getName().equalsIgnoreCase(name.trim())) return s;
+            }
+        }
+        return fastest(allowShortDigests);
+    }
+
+    /**
+     * Schnellstes Verfahren auf dieser CPU. Die Messung läuft nur beim ersten Aufruf
+     * (bzw. bereits beim Programmstart über {@link #calibrate()}).
+     */
+    public static HashStrategy fastest(boolean allowShortDigests) {
+        if (fastest == null) calibrate();
+        return allowShortDigests ? fastest : fastestWide;
+    }
+
+    /**
+     * Mikro-Kalibrierung: hasht einen Speicherpuffer mit jedem Verfahren und merkt sich
+     * das schnellste (einmal insgesamt und einmal mit mindestens 64 Bit Digest).
+     */
+    public static synchronized void calibrate() {
+        if (fastest != null) return;
+
+        byte[] data = new byte[1024 * 1024];
+        new Random(42).nextBytes(data);
+
+        // Erst alle aufwärmen, damit der JIT jedes Verfahren kompiliert hat
+        for (HashStrategy s : ALL) {
+            measure(s, data, 48);
+        }
+
+        HashStrategy best = null, bestWide = null;
+        long bestNs = Long.MAX_VALUE, bestWideNs = Long.MAX_VALUE;
+        for (HashStrategy s : ALL) {
+            long ns = Long.MAX_VALUE;
+            for (int run = 0; run < 3; run++) {
+                ns = Math.min(ns, measure(s, data, 8)); // bester Lauf zählt (Ausreißer durch GC etc.)
+            }
+            if (ns < bestNs) { bestNs = ns; best = s; }
+            if (s.getDigestBits() >= 64 && ns < bestWideNs) { bestWideNs = ns; bestWide = s; }
+        }
+        fastestWide = bestWide;
+        fastest = best;
+    }
+
+    private static long measure(HashStrategy s, byte[] data, int rounds) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            HashStrategy.Hasher h = s.newHasher();
+            h.update(data, 0, data.length);
+            h.finish();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static HashStrategy messageDigest(String algorithm, int bits) {
+        return new Simple(algorithm, bits, true) {
+            @Override
+            public Hasher newHasher() {
+                MessageDigest md;
+                try {
+                    md = MessageDigest.getInstance(algorithm);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(algorithm + " nicht verfügbar", e);
+                }
+                return new Hasher() {
+                    @Override public void update(byte[] bytes, int offset, int length) { md.update(bytes, offset, length); }
+                    @Override public void update(ByteBuffer buffer) { md.update(buffer); }
+                    @Override public byte[] digest() { return md.digest(); }
+                };
+            }
+        };
+    }
+
+    /** Gemeinsame Basis für die eingebauten Verfahren. */
+    private abstract static class Simple implements HashStrategy {
+        private final String name;
+        private final int bits;
+        private final boolean cryptographic;
+
+        Simple(String name, int bits, boolean cryptographic) {
+            this.name = name;
+            this.bits = bits;
+            this.cryptographic = cryptographic;
+        }
+
+        @Override public String getName() { return name; }
+        @Override public int getDigestBits() { return bits; }
+        @Override public boolean isCryptographic() { return cryptographic; }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
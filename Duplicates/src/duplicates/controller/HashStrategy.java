@@ -0,0 +1,45 @@
+package duplicates.controller;
+
+import duplicates.model.Digest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Austauschbares Hash-Verfahren für den Inhaltsvergleich.
+ * Implementierungen liefert {@link HashStrategies}; ausgewählt wird per Name aus den Suchoptionen.
+ */
+public interface HashStrategy {
+
+    /** Kurzname, wird so in den Settings gespeichert (z. B. "XXH64"). */
+    String getName();
+
+    /** Länge des Digests in Bit. */
+    int getDigestBits();
+
+    /** true = kryptografisch (kollisionsresistent), geeignet zur Bestätigung. */
+    boolean isCryptographic();
+
+    /** Neuer, zustandsbehafteter Hasher für genau eine Datei bzw. einen Block. */
+    Hasher newHasher();
+
+    /**
+     * Inkrementeller Hasher. Nicht thread-sicher; pro Datei einen eigenen verwenden.
+     */
+    interface Hasher {
+        void update(byte[] bytes, int offset, int length);
+
+        /** Verbraucht die verbleibenden Bytes des Puffers (auch Direct/Mapped Buffer). */
+        void update(ByteBuffer buffer);
+
+        /** Schließt die Berechnung ab und liefert den Digest (Big Endian). */
+        byte[] digest();
+
+        /**
+         * Wie {@link #digest()}, aber als kompakter Wert. Verfahren mit 64 Bit und weniger
+         * überschreiben das und kommen ohne Byte-Array aus.
+         */
+        default Digest finish() {
+            return Digest.of(digest());
+        }
+    }
+}
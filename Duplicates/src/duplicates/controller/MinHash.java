@@ -0,0 +1,134 @@
+package duplicates.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash-Signaturen für textartige Dateien.
+ *
+ * Der Text wird in Wörter zerlegt (Buchstaben/Ziffern, klein geschrieben) und in überlappende
+ * Folgen von {@link #SHINGLE_WORDS} Wörtern ("Shingles"). Je Hash-Funktion bleibt das Minimum
+ * über alle Shingles; der Anteil gleicher Minima zweier Signaturen schätzt die Jaccard-Ähnlichkeit
+ * ihrer Shingle-Mengen. Eine geänderte Zeitstempel-Zeile ändert so nur wenige Shingles.
+ *
+ * Gelesen wird als Strom, der Speicher hängt nicht von der Dateigröße ab.
+ */
+final class MinHash {
+
+    /** Hash-Funktionen je Signatur (= Bänder × Zeilen beim LSH). */
+    static final int SIGNATURE_SIZE = 128;
+
+    private static final int SHINGLE_WORDS = 3;
+
+    // FNV-1a für die Wort-Hashes
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /** Textartige Endungen, die der Textvergleich berücksichtigt. */
+    private static final Set<String> TEXT_EXTENSIONS = Set.of(
+            "txt", "text", "log", "csv", "tsv", "md", "rtf", "tex", "xml", "json", "yaml", "yml",
+            "html", "htm", "ini", "cfg", "conf", "properties", "sql", "java", "c", "h", "cpp", "py",
+            "js", "ts", "css", "sh", "bat");
+
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x314A_54A5L);
+        for (int i = 0; i < SEEDS.length; i++) SEEDS[i] = random.nextLong();
+    }
+
+    private MinHash() {
+    }
+
+    static boolean isText(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && TEXT_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Signatur einer Datei (UTF-8, ungültige Bytes werden ersetzt).
+     *
+     * @return Signatur oder null, wenn der Text keine Wörter enthält
+     */
+    static long[] signature(File file) throws IOException, InterruptedException {
+        long[] minima = new long[SIGNATURE_SIZE];
+        Arrays.fill(minima, Long.MAX_VALUE);
+        long[] window = new long[SHINGLE_WORDS]; // Hashes der letzten Wörter (Ringpuffer)
+        int words = 0;
+
+        var decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try (Reader in = new InputStreamReader(Files.newInputStream(file.toPath()), decoder)) {
+            char[] buffer = new char[16 * 1024];
+            long word = FNV_OFFSET;
+            boolean inWord = false;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Textvergleich abgebrochen: " + file);
+                }
+                for (int i = 0; i < read; i++) {
+                    char c = buffer[i];
+                    if (Character.isLetterOrDigit(c)) {
+                        word = (word ^ Character.toLowerCase(c)) * FNV_PRIME;
+                        inWord = true;
+                    } else if (inWord) {
+                        window[words++ % SHINGLE_WORDS] = word;
+                        if (words >= SHINGLE_WORDS) addShingle(minima, window, words);
+                        word = FNV_OFFSET;
+                        inWord = false;
+                    }
+                }
+            }
+            if (inWord) {
+                window[words++ % SHINGLE_WORDS] = word;
+                if (words >= SHINGLE_WORDS) addShingle(minima, window, words);
+            }
+        }
+        if (words == 0) return null;
+        if (words < SHINGLE_WORDS) addShingle(minima, window, words); // sehr kurzer Text: ein Shingle
+        return minima;
+    }
+
+    /** Geschätzte Jaccard-Ähnlichkeit zweier Signaturen (0–1). */
+    static double similarity(long[] a, long[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return equal / (double) SIGNATURE_SIZE;
+    }
+
+    // --- Interna ---
+
+    /** Shingle aus den letzten Wörtern in Lesereihenfolge, gegen alle Hash-Funktionen. */
+    private static void addShingle(long[] minima, long[] window, int words) {
+        long shingle = 0;
+        int count = Math.min(words, SHINGLE_WORDS);
+        for (int i = count; i > 0; i--) {
+            shingle = shingle * 0x9E3779B97F4A7C15L + window[(words - i) % SHINGLE_WORDS];
+        }
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            long h = mix(shingle ^ SEEDS[i]);
+            if (h < minima[i]) minima[i] = h;
+        }
+    }
+
+    /** Finalizer aus SplitMix64: gute Durchmischung, unabhängige Funktion je Seed. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
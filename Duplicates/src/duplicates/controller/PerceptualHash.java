@@ -0,0 +1,184 @@
+package duplicates.controller;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Wahrnehmungs-Hashes für Bilder: ähnliche Bilder (neu kodiert, verkleinert, leicht
+ * nachbearbeitet) haben Hashes mit kleinem Hamming-Abstand, auch wenn kein Byte übereinstimmt.
+ *
+ * Dekodiert wird herunterskaliert ({@link ImageReadParam#setSourceSubsampling}), damit große
+ * Fotos nicht in voller Auflösung im Speicher landen. Daraus entstehen zwei 64-Bit-Hashes:
+ * <ul>
+ *   <li>pHash: Vorzeichen der niedrigsten 8×8 DCT-Frequenzen eines 32×32-Graubilds gegen den Median</li>
+ *   <li>dHash: Helligkeitsgefälle benachbarter Pixel eines 9×8-Graubilds</li>
+ * </ul>
+ */
+public final class PerceptualHash {
+
+    /** Kürzere Bildseite nach dem Subsampling (mindestens). */
+    private static final int DECODE_TARGET = 128;
+
+    private static final int DCT_SIZE = 32;
+    private static final int LOW_FREQ = 8;
+
+    /** Kosinus-Tabelle der DCT-II (Zeile = Frequenz, Spalte = Position). */
+    private static final double[][] COS = new double[LOW_FREQ][DCT_SIZE];
+
+    static {
+        for (int u = 0; u < LOW_FREQ; u++) {
+            for (int x = 0; x < DCT_SIZE; x++) {
+                COS[u][x] = Math.cos((2 * x + 1) * u * Math.PI / (2.0 * DCT_SIZE));
+            }
+        }
+    }
+
+    private static final Set<String> SUFFIXES = new HashSet<>();
+
+    static {
+        for (String s : ImageIO.getReaderFileSuffixes()) SUFFIXES.add(s.toLowerCase(Locale.ROOT));
+    }
+
+    /** Beide Hashes eines Bildes. */
+    public record Signature(long perceptual, long difference) {
+    }
+
+    private PerceptualHash() {
+    }
+
+    /** true, wenn ImageIO die Dateiendung lesen kann. */
+    public static boolean isSupported(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && SUFFIXES.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /** Hamming-Abstand zweier 64-Bit-Hashes. */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /** Ähnlichkeit in Prozent aus dem Abstand (64 Bit = 0 %). */
+    public static int similarity(int distance) {
+        return (int) Math.round(100.0 * (64 - distance) / 64);
+    }
+
+    /**
+     * Dekodiert das Bild herunterskaliert und berechnet beide Hashes.
+     *
+     * @return Signatur oder null, wenn die Datei kein lesbares Bild ist
+     */
+    public static Signature of(File file) {
+        BufferedImage image = decode(file);
+        if (image == null) return null;
+
+        float[] gray = luminance(image);
+        int w = image.getWidth(), h = image.getHeight();
+        return new Signature(pHash(resample(gray, w, h, DCT_SIZE, DCT_SIZE)),
+                dHash(resample(gray, w, h, 9, 8)));
+    }
+
+    // --- Interna ---
+
+    private static BufferedImage decode(File file) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int step = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / DECODE_TARGET);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (Exception e) {
+            return null; // beschädigt oder nicht unterstützt
+        }
+    }
+
+    private static float[] luminance(BufferedImage image) {
+        int w = image.getWidth(), h = image.getHeight();
+        float[] gray = new float[w * h];
+        int[] line = new int[w];
+        for (int y = 0; y < h; y++) {
+            image.getRGB(0, y, w, 1, line, 0, w);
+            for (int x = 0; x < w; x++) {
+                int rgb = line[x];
+                gray[y * w + x] = 0.299f * (rgb >> 16 & 0xFF) + 0.587f * (rgb >> 8 & 0xFF) + 0.114f * (rgb & 0xFF);
+            }
+        }
+        return gray;
+    }
+
+    /** Flächenmittel auf tw×th (jedes Zielpixel mittelt seinen Quellbereich). */
+    private static float[] resample(float[] src, int w, int h, int tw, int th) {
+        float[] dst = new float[tw * th];
+        for (int ty = 0; ty < th; ty++) {
+            int y0 = ty * h / th, y1 = Math.max(y0 + 1, (ty + 1) * h / th);
+            for (int tx = 0; tx < tw; tx++) {
+                int x0 = tx * w / tw, x1 = Math.max(x0 + 1, (tx + 1) * w / tw);
+                float sum = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) sum += src[Math.min(y, h - 1) * w + Math.min(x, w - 1)];
+                }
+                dst[ty * tw + tx] = sum / ((y1 - y0) * (x1 - x0));
+            }
+        }
+        return dst;
+    }
+
+    private static long pHash(float[] pixels) {
+        // Zeilen-DCT, dann Spalten-DCT – jeweils nur die niedrigen Frequenzen
+        double[][] rows = new double[DCT_SIZE][LOW_FREQ];
+        for (int y = 0; y < DCT_SIZE; y++) {
+            for (int u = 0; u < LOW_FREQ; u++) {
+                double sum = 0;
+                for (int x = 0; x < DCT_SIZE; x++) sum += pixels[y * DCT_SIZE + x] * COS[u][x];
+                rows[y][u] = sum;
+            }
+        }
+        double[] coeff = new double[LOW_FREQ * LOW_FREQ];
+        for (int v = 0; v < LOW_FREQ; v++) {
+            for (int u = 0; u < LOW_FREQ; u++) {
+                double sum = 0;
+                for (int y = 0; y < DCT_SIZE; y++) sum += rows[y][u] * COS[v][y];
+                coeff[v * LOW_FREQ + u] = sum;
+            }
+        }
+        // Median ohne den Gleichanteil (Helligkeit)
+        double[] sorted = Arrays.copyOfRange(coeff, 1, coeff.length);
+        Arrays.sort(sorted);
+        double median = sorted[sorted.length / 2];
+
+        long hash = 0;
+        for (int i = 0; i < coeff.length; i++) {
+            if (coeff[i] > median) hash |= 1L << i;
+        }
+        return hash;
+    }
+
+    private static long dHash(float[] pixels) {
+        long hash = 0;
+        int bit = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                if (pixels[y * 9 + x] < pixels[y * 9 + x + 1]) hash |= 1L << bit;
+                bit++;
+            }
+        }
+        return hash;
+    }
+}
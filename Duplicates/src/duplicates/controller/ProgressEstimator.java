@@ -0,0 +1,112 @@
+package duplicates.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schätzt die Gesamtzahl der Dateien, während die Traversierung läuft – ohne vorgelagerten
+ * Zähldurchlauf.
+ *
+ * Grundlage sind die bisher gelisteten Verzeichnisse (Dateien je Verzeichnis) und die Front
+ * noch offener Verzeichnisse: Offene Ordner, deren Dateizahl aus dem Verzeichnis-Snapshot
+ * bekannt ist, zählen exakt, die übrigen mit dem bisherigen Durchschnitt. Liegt die Summe
+ * des letzten Laufs über dieselben Startordner vor, dient sie als Untergrenze, solange die
+ * Front nicht leer ist. Die Prozentanzeige steigt nur und bleibt bis zum Ende unter 100.
+ *
+ * Thread-sicher (parallele Traversierung).
+ */
+public class ProgressEstimator {
+
+    private final long previousTotal;
+
+    private final AtomicLong processed = new AtomicLong();     // gemeldete Dateien
+    private final AtomicInteger queuedDirs = new AtomicInteger();
+    private final AtomicInteger startedDirs = new AtomicInteger();
+    private final AtomicInteger finishedDirs = new AtomicInteger();
+    private final AtomicInteger knownDirs = new AtomicInteger();    // offen, Dateizahl bekannt
+    private final AtomicLong knownFiles = new AtomicLong();         // deren Dateien
+    private final AtomicInteger lastPercent = new AtomicInteger(-1);
+
+    /**
+     * @param previousTotal Dateien beim letzten Lauf über dieselbe Auswahl (0 = unbekannt)
+     */
+    public ProgressEstimator(long previousTotal) {
+        this.previousTotal = Math.max(0L, previousTotal);
+    }
+
+    /**
+     * Ein Verzeichnis kommt auf die Front.
+     *
+     * @param knownFileCount Dateizahl aus dem Snapshot, -1 = unbekannt
+     */
+    public void directoryQueued(int knownFileCount) {
+        queuedDirs.incrementAndGet();
+        if (knownFileCount >= 0) {
+            knownDirs.incrementAndGet();
+            knownFiles.addAndGet(knownFileCount);
+        }
+    }
+
+    /**
+     * Ein Verzeichnis der Front wird jetzt gelistet.
+     *
+     * @param knownFileCount derselbe Wert wie bei {@link #directoryQueued(int)}
+     */
+    public void directoryStarted(int knownFileCount) {
+        startedDirs.incrementAndGet();
+        if (knownFileCount >= 0) {
+            knownDirs.decrementAndGet();
+            knownFiles.addAndGet(-knownFileCount);
+        }
+    }
+
+    /** Ein Verzeichnis ist fertig gelistet. */
+    public void directoryFinished() {
+        finishedDirs.incrementAndGet();
+    }
+
+    public void fileProcessed() {
+        processed.incrementAndGet();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * Aktuelle Schätzung der Gesamtzahl (nie kleiner als die bereits gemeldeten Dateien);
+     * 0 = noch keine Aussage möglich.
+     */
+    public long estimateTotal() {
+        long done = processed.get();
+        int started = startedDirs.get();
+        int open = Math.max(0, queuedDirs.get() - started);
+
+        // Nur ein laufender Startordner ohne Unterordner: Umfang unbekannt
+        if (open == 0 && finishedDirs.get() == 0) {
+            return previousTotal > 0 ? Math.max(done, previousTotal) : 0L;
+        }
+
+        int unknownOpen = Math.max(0, open - knownDirs.get());
+        double avgPerDir = started > 0 ? (double) done / started : 0.0;
+        long estimate = done + Math.max(0L, knownFiles.get()) + Math.round(unknownOpen * avgPerDir);
+        return Math.max(estimate, previousTotal);
+    }
+
+    /**
+     * Prozentwert zur aktuellen Schätzung, höchstens 99 und nie kleiner als zuvor.
+     *
+     * @return neuer Wert oder -1, wenn er sich nicht erhöht hat
+     */
+    public int nextPercent() {
+        long total = estimateTotal();
+        if (total <= 0) return -1;
+        int p = (int) Math.min(99, processed.get() * 100 / total);
+        int last = lastPercent.get();
+        while (p > last) {
+            if (lastPercent.compareAndSet(last, p)) return p;
+            last = lastPercent.get();
+        }
+        return -1;
+    }
+}
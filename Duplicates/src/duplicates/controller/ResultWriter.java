@@ -0,0 +1,158 @@
+package duplicates.controller;
+
+import duplicates.model.DuplicateSearchModel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schreibt die Ergebnisse einer Suchsitzung in einem eigenen Thread in einen
+ * {@link DuplicateResultStore}.
+ *
+ * Die Suche reicht Zeilen über eine begrenzte Warteschlange weiter ({@link #submit}); ist sie
+ * voll, wartet die Suche (Gegendruck statt unbegrenztem Speicher). Der Schreib-Thread nimmt
+ * jeweils alles Anstehende als Stapel und schreibt es in einem Zug; auf die Platte geht es
+ * spätestens alle {@link #FLUSH_INTERVAL_MS} ms. Weder EDT noch Suchthreads warten so auf
+ * einzelne Schreibvorgänge.
+ */
+public final class ResultWriter implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 1024;
+    private static final long FLUSH_INTERVAL_MS = 500;
+
+    private record Item(DuplicateSearchModel model, int groupId) {
+    }
+
+    /** Markiert das Ende der Sitzung in der Warteschlange. */
+    private static final Item END = new Item(null, 0);
+
+    private final DuplicateResultStore.Writer store;
+    private final BlockingQueue<Item> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread thread;
+    private volatile IOException failure;
+    private volatile long bytesWritten;
+    private boolean closed;
+
+    public ResultWriter(File file) throws IOException {
+        this.store = new DuplicateResultStore.Writer(file);
+        this.thread = new Thread(this::run, "Ergebnisse " + file.getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reiht eine Ergebniszeile ein. Darf von mehreren Threads aufgerufen werden; wartet nur,
+     * wenn die Warteschlange voll ist. Nach einem Schreibfehler werden Zeilen verworfen.
+     */
+    public void submit(DuplicateSearchModel model, int groupId) {
+        if (failure != null) return;
+        try {
+            queue.put(new Item(model, groupId));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Suche abgebrochen
+        }
+    }
+
+    /** Anzahl der noch nicht geschriebenen Zeilen. */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /** Bisher in die Ergebnisdatei geschriebene Bytes. */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public File getFile() {
+        return store.getFile();
+    }
+
+    /**
+     * Schreibt alle eingereihten Zeilen, hängt den Gruppenindex an und beendet den Thread.
+     *
+     * @throws IOException der erste Schreibfehler der Sitzung
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(END);
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true; // trotzdem sauber abschließen, sonst fehlt der Index
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        bytesWritten = store.getBytesWritten();
+        if (failure != null) throw failure;
+    }
+
+    // --- Schreib-Thread ---
+
+    private void run() {
+        List<Item> batch = new ArrayList<>(BATCH_SIZE);
+        long lastFlush = System.nanoTime();
+        boolean end = false;
+        while (!end) {
+            try {
+                Item first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                }
+            } catch (InterruptedException e) {
+                continue; // nur close() beendet den Thread
+            }
+            for (Item item : batch) {
+                if (item == END) {
+                    end = true;
+                    break;
+                }
+                if (failure == null) write(item);
+            }
+            batch.clear();
+
+            long now = System.nanoTime();
+            if (!end && failure == null && now - lastFlush >= TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS)) {
+                try {
+                    store.flush();
+                } catch (IOException e) {
+                    fail(e);
+                }
+                lastFlush = now;
+            }
+            bytesWritten = store.getBytesWritten();
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void write(Item item) {
+        try {
+            store.append(item.model(), item.groupId());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        if (failure == null) {
+            e.printStackTrace();
+            failure = e; // weiter leeren, damit wartende Suchthreads nicht hängen
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package duplicates.controller;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Gespeicherte Ergebnisdatei mit wahlfreiem Zeilenzugriff, für die seitenweise Anzeige
+ * früherer Läufe. Spalten sind die Attributnamen des XML-Formats ("name", "path", …).
+ */
+public interface SavedResults extends Closeable {
+
+    List<String> getColumns();
+
+    int getRowCount();
+
+    /** Zeilen {@code first} bis {@code first + count - 1}, je Spalte ein Wert. */
+    List<String[]> read(int first, int count) throws IOException;
+
+    /**
+     * Öffnet eine Ergebnisdatei: ".dsr" direkt über ihren Gruppenindex, XML über einen beim
+     * ersten Öffnen erzeugten Offset-Index ({@link XmlResultIndex}).
+     */
+    static SavedResults open(File file) throws IOException {
+        if (file.getName().endsWith(DuplicateResultStore.EXTENSION)) {
+            return new DuplicateResultStore.Reader(file);
+        }
+        return XmlResultIndex.open(file);
+    }
+}
@@ -0,0 +1,67 @@
+package duplicates.controller;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bereinigt die im Ordnerbaum ausgewählten Startordner, damit kein Teilbaum doppelt
+ * durchlaufen wird: Pfade werden kanonisiert (Symlinks, "..", Groß-/Kleinschreibung je nach
+ * Dateisystem), doppelte entfernt und – bei Suche inkl. Unterordnern – verschachtelte verworfen.
+ */
+public final class SearchRoots {
+
+    private SearchRoots() {
+    }
+
+    /**
+     * @param folders           Auswahl aus dem Ordnerbaum
+     * @param includeSubfolders true = Ordner unterhalb eines anderen Startordners fallen weg
+     * @return bereinigte Startordner in ursprünglicher Reihenfolge
+     */
+    public static List<String> normalize(List<String> folders, boolean includeSubfolders) {
+        List<Path> paths = new ArrayList<>(folders.size());
+        for (String folder : folders) {
+            Path p = canonical(folder);
+            if (!paths.contains(p)) paths.add(p);
+        }
+
+        List<Path> kept = new ArrayList<>(paths);
+        if (includeSubfolders) {
+            // Kürzere Pfade zuerst: ein Ordner kann nur unter einem kürzeren liegen
+            List<Path> byDepth = new ArrayList<>(paths);
+            byDepth.sort(Comparator.comparingInt(Path::getNameCount));
+            List<Path> outer = new ArrayList<>();
+            for (Path p : byDepth) {
+                boolean nested = false;
+                for (Path o : outer) {
+                    if (p.startsWith(o)) {
+                        nested = true;
+                        break;
+                    }
+                }
+                if (nested) {
+                    kept.remove(p);
+                } else {
+                    outer.add(p);
+                }
+            }
+        }
+
+        List<String> result = new ArrayList<>(kept.size());
+        for (Path p : kept) result.add(p.toString());
+        return result;
+    }
+
+    private static Path canonical(String folder) {
+        Path p = Paths.get(folder);
+        try {
+            return p.toRealPath();
+        } catch (IOException | SecurityException e) {
+            return p.toAbsolutePath().normalize(); // existiert nicht (mehr) -> wird später übersprungen
+        }
+    }
+}
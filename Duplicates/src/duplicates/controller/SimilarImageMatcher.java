@@ -0,0 +1,132 @@
+package duplicates.controller;
+
+import duplicates.model.Digest;
+import duplicates.model.DuplicateSearchModel;
+import duplicates.model.FileEntry;
+import duplicates.model.PathDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Abgleich ähnlicher Bilder statt identischer Dateien.
+ *
+ * {@link #insert(FileEntry)} dekodiert ein Bild herunterskaliert und berechnet seine
+ * Wahrnehmungs-Hashes ({@link PerceptualHash}); das läuft parallel auf den Pools der Datenträger.
+ * {@link #finish()} sucht über einen {@link BkTree} je Bild die Nachbarn mit pHash-Abstand
+ * ≤ maxDistance und bestätigt sie über den dHash. Zusammenhängende Treffer sind nur Kandidaten:
+ * gemeldet werden Gruppen um ein Zentrum (erstes noch freies Bild), in die nur Bilder kommen,
+ * die beide Abstände gegenüber dem Zentrum einhalten. Jedes Mitglied bekommt seine Ähnlichkeit
+ * zum Zentrum.
+ */
+final class SimilarImageMatcher implements DeferredMatcher {
+
+    private final PathDictionary paths;
+    private final HashStrategy strategy;
+    private final int maxDistance;
+    private final DuplicateSearchStatistics statistics;
+    private final BooleanSupplier cancelled;
+    private final DuplicateMatcher.Listener listener;
+
+    private final List<DuplicateSearchModel> images = new ArrayList<>();
+    private long[] perceptual = new long[1024];
+    private long[] difference = new long[1024];
+
+    SimilarImageMatcher(PathDictionary paths, HashStrategy strategy, int maxDistance,
+                        DuplicateSearchStatistics statistics, BooleanSupplier cancelled,
+                        DuplicateMatcher.Listener listener) {
+        this.paths = paths;
+        this.strategy = strategy;
+        this.maxDistance = maxDistance;
+        this.statistics = statistics;
+        this.cancelled = cancelled;
+        this.listener = listener;
+    }
+
+    /** Nur Dateien, deren Endung ImageIO lesen kann. */
+    @Override
+    public boolean accepts(FileEntry entry) {
+        return PerceptualHash.isSupported(entry.file());
+    }
+
+    /** Hasht ein Bild. */
+    @Override
+    public void insert(FileEntry entry) {
+        if (cancelled.getAsBoolean()) return;
+        PerceptualHash.Signature signature = PerceptualHash.of(entry.file());
+        if (signature == null) {
+            statistics.addUnreadable(1);
+            return;
+        }
+        DuplicateSearchModel model = new DuplicateSearchModel(entry, paths, strategy, null);
+        model.setImageHash(Digest.of64(signature.perceptual()));
+        synchronized (this) {
+            int i = images.size();
+            if (i == perceptual.length) {
+                perceptual = Arrays.copyOf(perceptual, i * 2);
+                difference = Arrays.copyOf(difference, i * 2);
+            }
+            perceptual[i] = signature.perceptual();
+            difference[i] = signature.difference();
+            images.add(model);
+        }
+    }
+
+    /** Gruppiert alle gehashten Bilder und meldet Gruppen ab zwei Mitgliedern. */
+    @Override
+    public synchronized void finish() {
+        int n = images.size();
+        UnionFind sets = new UnionFind(n);
+
+        BkTree tree = new BkTree();
+        for (int i = 0; i < n; i++) {
+            if (cancelled.getAsBoolean()) return;
+            int current = i;
+            tree.search(perceptual[i], maxDistance, j -> {
+                if (PerceptualHash.distance(difference[current], difference[j]) <= maxDistance) {
+                    sets.union(current, j);
+                }
+            });
+            tree.add(perceptual[i], i);
+        }
+
+        // Kandidaten je Wurzel in Einfügereihenfolge; Zentrum = erstes noch freies Bild
+        Map<Integer, List<Integer>> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            candidates.computeIfAbsent(sets.find(i), k -> new ArrayList<>()).add(i);
+        }
+        int groupId = 1;
+        for (List<Integer> rest : candidates.values()) {
+            while (rest.size() > 1) {
+                if (cancelled.getAsBoolean()) return;
+                int centre = rest.get(0);
+                List<Integer> members = new ArrayList<>();
+                List<Integer> others = new ArrayList<>();
+                for (int i : rest) {
+                    int distance = PerceptualHash.distance(perceptual[centre], perceptual[i]);
+                    if (distance <= maxDistance
+                            && PerceptualHash.distance(difference[centre], difference[i]) <= maxDistance) {
+                        images.get(i).setSimilarity(PerceptualHash.similarity(distance));
+                        members.add(i);
+                    } else {
+                        others.add(i);
+                    }
+                }
+                if (members.size() > 1) report(members, groupId++);
+                rest = others;
+            }
+        }
+    }
+
+    /** Meldet eine Gruppe, das Zentrum zuerst, dann absteigend nach Ähnlichkeit. */
+    private void report(List<Integer> members, int groupId) {
+        members.sort(Comparator.comparingInt((Integer i) -> -images.get(i).getSimilarity()));
+        statistics.addDuplicateGroup(members.size());
+        for (int i : members) listener.duplicate(images.get(i), groupId);
+    }
+}
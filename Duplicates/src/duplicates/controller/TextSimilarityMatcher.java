@@ -0,0 +1,156 @@
+package duplicates.controller;
+
+import duplicates.model.DuplicateSearchModel;
+import duplicates.model.FileEntry;
+import duplicates.model.PathDictionary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Textvergleich: gruppiert nahezu gleiche Dokumente (z. B. derselbe Bericht mit anderem
+ * Zeitstempel) über {@link MinHash}-Signaturen.
+ *
+ * Kandidaten liefert Locality-Sensitive Hashing statt eines Vergleichs aller Paare: die
+ * Signatur wird in {@link #BANDS} Bänder geteilt, je Band werden die Band-Hashes sortiert,
+ * und nur Dokumente mit einem gleichen Band werden verglichen. Bestätigt wird über die
+ * geschätzte Jaccard-Ähnlichkeit der vollen Signatur.
+ *
+ * Bestätigte Paare ergeben zusammenhängende Kandidatenmengen; gemeldet werden daraus Gruppen
+ * um ein Zentrum (erstes noch freies Dokument), in die nur Dokumente kommen, die die Schwelle
+ * gegenüber dem Zentrum erreichen. Eine Kette A~B~C ohne A~C wird so nicht zu einer Gruppe.
+ */
+final class TextSimilarityMatcher implements DeferredMatcher {
+
+    /** 16 Bänder × 8 Zeilen: Paare mit 80 % Ähnlichkeit werden zu ca. 95 % Kandidaten, mit 50 % kaum. */
+    private static final int BANDS = 16;
+    private static final int ROWS = MinHash.SIGNATURE_SIZE / BANDS;
+
+    /** Größere Dateien sind keine Dokumente im Sinne dieses Vergleichs (Logs, Dumps). */
+    static final long MAX_FILE_SIZE = 64L * 1024 * 1024;
+
+    private final PathDictionary paths;
+    private final HashStrategy strategy;
+    private final double minSimilarity;
+    private final DuplicateSearchStatistics statistics;
+    private final BooleanSupplier cancelled;
+    private final DuplicateMatcher.Listener listener;
+
+    private final List<DuplicateSearchModel> documents = new ArrayList<>();
+    private final List<long[]> signatures = new ArrayList<>();
+
+    TextSimilarityMatcher(PathDictionary paths, HashStrategy strategy, int minSimilarityPercent,
+                          DuplicateSearchStatistics statistics, BooleanSupplier cancelled,
+                          DuplicateMatcher.Listener listener) {
+        this.paths = paths;
+        this.strategy = strategy;
+        this.minSimilarity = minSimilarityPercent / 100.0;
+        this.statistics = statistics;
+        this.cancelled = cancelled;
+        this.listener = listener;
+    }
+
+    /** Nur textartige Endungen bis {@link #MAX_FILE_SIZE}. */
+    @Override
+    public boolean accepts(FileEntry entry) {
+        return entry.size() <= MAX_FILE_SIZE && MinHash.isText(entry.file());
+    }
+
+    /** Berechnet die Signatur eines Dokuments. */
+    @Override
+    public void insert(FileEntry entry) {
+        if (cancelled.getAsBoolean()) return;
+        long[] signature;
+        try {
+            signature = MinHash.signature(entry.file());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            statistics.addUnreadable(1);
+            return;
+        }
+        if (signature == null) return; // keine Wörter
+        DuplicateSearchModel model = new DuplicateSearchModel(entry, paths, strategy, null);
+        synchronized (this) {
+            documents.add(model);
+            signatures.add(signature);
+        }
+    }
+
+    /** Kandidaten je Band suchen, bestätigen und zu Gruppen zusammenfassen. */
+    @Override
+    public synchronized void finish() {
+        int n = documents.size();
+        UnionFind sets = new UnionFind(n);
+
+        long[] keys = new long[n];
+        int[] order = new int[n];
+        for (int band = 0; band < BANDS; band++) {
+            if (cancelled.getAsBoolean()) return;
+            for (int i = 0; i < n; i++) {
+                keys[i] = bandHash(signatures.get(i), band);
+                order[i] = i;
+            }
+            if (n > 0) FileCatalog.sort(keys, order, 0, n - 1);
+
+            // Gleiche Band-Hashes liegen hintereinander: mit dem ersten des Laufs vergleichen
+            int start = 0;
+            while (start < n) {
+                int end = start + 1;
+                while (end < n && keys[end] == keys[start]) end++;
+                for (int i = start + 1; i < end; i++) {
+                    if (sets.find(order[i]) == sets.find(order[start])) continue;
+                    if (MinHash.similarity(signatures.get(order[i]), signatures.get(order[start])) >= minSimilarity) {
+                        sets.union(order[i], order[start]);
+                    }
+                }
+                start = end;
+            }
+        }
+
+        Map<Integer, List<Integer>> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            candidates.computeIfAbsent(sets.find(i), k -> new ArrayList<>()).add(i);
+        }
+        int groupId = 1;
+        for (List<Integer> rest : candidates.values()) {
+            while (rest.size() > 1) {
+                if (cancelled.getAsBoolean()) return;
+                long[] centre = signatures.get(rest.get(0));
+                List<Integer> members = new ArrayList<>();
+                List<Integer> others = new ArrayList<>();
+                for (int i : rest) {
+                    double similarity = MinHash.similarity(centre, signatures.get(i));
+                    if (similarity >= minSimilarity) {
+                        documents.get(i).setSimilarity((int) Math.round(100 * similarity));
+                        members.add(i);
+                    } else {
+                        others.add(i);
+                    }
+                }
+                if (members.size() > 1) report(members, groupId++);
+                rest = others;
+            }
+        }
+    }
+
+    /** Meldet eine Gruppe, das Zentrum zuerst, dann absteigend nach Ähnlichkeit. */
+    private void report(List<Integer> members, int groupId) {
+        members.sort(Comparator.comparingInt((Integer i) -> -documents.get(i).getSimilarity()));
+        statistics.addDuplicateGroup(members.size());
+        for (int i : members) listener.duplicate(documents.get(i), groupId);
+    }
+
+    private static long bandHash(long[] signature, int band) {
+        long h = band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            h = h * 0x9E3779B97F4A7C15L + signature[r];
+        }
+        return h ^ (h >>> 29);
+    }
+}
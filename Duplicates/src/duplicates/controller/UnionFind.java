@@ -0,0 +1,30 @@
+package duplicates.controller;
+
+/**
+ * Disjunkte Mengen über die Indizes 0..n-1 (Union-Find mit Pfadhalbierung).
+ * Wurzel einer Menge ist stets ihr kleinster Index, Gruppen behalten so die Einfügereihenfolge.
+ *
+ * Nicht thread-sicher.
+ */
+final class UnionFind {
+
+    private final int[] parent;
+
+    UnionFind(int n) {
+        parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+    }
+
+    int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // Pfadhalbierung
+            i = parent[i];
+        }
+        return i;
+    }
+
+    void union(int a, int b) {
+        int ra = find(a), rb = find(b);
+        if (ra != rb) parent[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+}
@@ -1,18 +1,22 @@
 package duplicates.controller;
 
-import duplicates.model.DuplicateSearchModel;
 import duplicates.model.DuplicateSearchOptionsModel;
 import duplicates.model.FileSearchModel;
 import duplicates.model.FileSearchOptionsModel;
 
 import javax.xml.stream.*;
 import java.io.*;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import javax.xml.parsers.*;
 import javax.xml.transform.*;
 import javax.xml.transform.dom.DOMSource;
@@ -28,14 +32,13 @@ public class XMLController {
     private static String dsSettingsPath = "settings/DSsettings.xml";
     private static String fsSettingsPath = "settings/FSsettings.xml";
 
+    // --- Dateizahlen früherer Läufe (Startwert der Fortschrittsschätzung) ---
+    private static String scanTotalsPath = "results/scan-totals.xml";
+
     // --- Writer für Dateisuche ---
     private static XMLStreamWriter RESULTS_WRITER;
     private static File RESULTS_FILE;
 
-    // --- Writer für Duplikatsuche ---
-    private static XMLStreamWriter DUP_RESULTS_WRITER;
-    private static File DUP_RESULTS_FILE;
-
     private static final DateTimeFormatter TS_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
     // ========================================================================
@@ -191,79 +194,140 @@ public class XMLController {
     }
 
     // ========================================================================
-    // ========== Duplikatsuche Ergebnisse (Streaming mit StAX) ===============
+    // ========== Duplikatsuche Ergebnisse (XML-Export) =======================
     // ========================================================================
 
-    public static synchronized void beginDuplicateResults(String resultFilePath) {
-        try {
-            DUP_RESULTS_FILE = new File(resultFilePath);
-            File parent = DUP_RESULTS_FILE.getParentFile();
-            if (parent != null) parent.mkdirs();
-
-            OutputStream os = new BufferedOutputStream(new FileOutputStream(DUP_RESULTS_FILE, false));
-            XMLOutputFactory of = XMLOutputFactory.newInstance();
-            DUP_RESULTS_WRITER = of.createXMLStreamWriter(os, "UTF-8");
+    private static void writeDuplicateFile(XMLStreamWriter w, int groupId, String name, String path,
+                                           long sizeBytes, String type, LocalDate created, LocalDate modified,
+                                           String hash, boolean verified, int similarity) throws XMLStreamException {
+        w.writeCharacters("    ");
+        w.writeStartElement("File");
+        w.writeAttribute("group", String.valueOf(groupId));
+        w.writeAttribute("name", name);
+        w.writeAttribute("path", path);
+        w.writeAttribute("sizeBytes", String.valueOf(sizeBytes));
+        w.writeAttribute("type", safe(type));
+        w.writeAttribute("created", created != null ? created.toString() : "");
+        w.writeAttribute("modified", modified != null ? modified.toString() : "");
+        w.writeAttribute("hash", hash);
+        w.writeAttribute("verified", String.valueOf(verified));
+        w.writeAttribute("similarity", String.valueOf(similarity));
+        w.writeEndElement(); // </File>
+        w.writeCharacters("\n");
+    }
 
-            DUP_RESULTS_WRITER.writeStartDocument("UTF-8", "1.0");
-            DUP_RESULTS_WRITER.writeCharacters("\n");
-            DUP_RESULTS_WRITER.writeStartElement("DuplicateSearchResults");
-            DUP_RESULTS_WRITER.writeAttribute("timestamp", LocalDateTime.now().format(TS_FMT));
+    /**
+     * Wandelt eine binäre Ergebnisdatei ({@link DuplicateResultStore}) in XML um,
+     * gruppenweise nach Gruppen-ID.
+     */
+    public static void exportDuplicateResults(String storePath, String xmlPath) {
+        File xmlFile = new File(xmlPath);
+        File parent = xmlFile.getParentFile();
+        if (parent != null) parent.mkdirs();
+
+        try (DuplicateResultStore.Reader store = new DuplicateResultStore.Reader(new File(storePath));
+             OutputStream os = new BufferedOutputStream(new FileOutputStream(xmlFile, false))) {
+            XMLStreamWriter w = XMLOutputFactory.newInstance().createXMLStreamWriter(os, "UTF-8");
+            w.writeStartDocument("UTF-8", "1.0");
+            w.writeCharacters("\n");
+            w.writeStartElement("DuplicateSearchResults");
+            w.writeAttribute("timestamp", LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(store.getTimestamp()), ZoneId.systemDefault()).format(TS_FMT));
+            w.writeCharacters("\n  ");
+            w.writeStartElement("Groups");
+            w.writeCharacters("\n");
+
+            for (int g = 0; g < store.getGroupCount(); g++) {
+                for (DuplicateResultStore.Record r : store.readGroup(g)) {
+                    writeDuplicateFile(w, r.groupId, r.name, r.path, r.sizeBytes, r.type, r.created, r.modified,
+                            r.hash, r.verified, r.similarity);
+                }
+            }
 
-            DUP_RESULTS_WRITER.writeCharacters("\n  ");
-            DUP_RESULTS_WRITER.writeStartElement("Groups");
-            DUP_RESULTS_WRITER.writeCharacters("\n");
-            DUP_RESULTS_WRITER.flush();
+            w.writeCharacters("  ");
+            w.writeEndElement(); // </Groups>
+            w.writeCharacters("\n");
+            w.writeEndElement(); // </DuplicateSearchResults>
+            w.writeCharacters("\n");
+            w.writeEndDocument();
+            w.close();
         } catch (Exception e) {
-            closeDuplicateQuietly();
-            throw new RuntimeException("beginDuplicateResults fehlgeschlagen: " + e.getMessage(), e);
+            throw new RuntimeException("exportDuplicateResults fehlgeschlagen: " + e.getMessage(), e);
         }
     }
 
-    public static synchronized void appendDuplicateResult(DuplicateSearchModel m, int groupId) {
-        if (DUP_RESULTS_WRITER == null) return;
+    // ========================================================================
+    // ========== Dateizahlen früherer Läufe ==================================
+    // ========================================================================
+
+    /** Schlüssel für eine Auswahl: normalisierte Startordner + Unterordner-Flag. */
+    public static String scanTotalsKey(List<String> roots, boolean includeSubfolders) {
+        return String.join(File.pathSeparator, roots) + (includeSubfolders ? "|sub" : "|flat");
+    }
+
+    /** Dateizahl des letzten vollständigen Laufs über dieselbe Auswahl (0 = unbekannt). */
+    public static synchronized long readScanTotal(String key) {
+        Element scan = findScanTotal(loadScanTotals(), key);
+        return scan != null ? parseLong(scan.getAttribute("files"), 0L) : 0L;
+    }
+
+    /** Merkt sich die Dateizahl eines vollständigen Laufs (Fehler werden nur protokolliert). */
+    public static synchronized void saveScanTotal(String key, long files) {
         try {
-            DUP_RESULTS_WRITER.writeCharacters("    ");
-            DUP_RESULTS_WRITER.writeStartElement("File");
-            DUP_RESULTS_WRITER.writeAttribute("group", String.valueOf(groupId));
-            DUP_RESULTS_WRITER.writeAttribute("name", m.getFileName());
-            DUP_RESULTS_WRITER.writeAttribute("path", m.getParentPath());
-            DUP_RESULTS_WRITER.writeAttribute("sizeBytes", String.valueOf(m.getFileSizeBytes()));
-            DUP_RESULTS_WRITER.writeAttribute("type", safe(m.getFileType()));
-            DUP_RESULTS_WRITER.writeAttribute("created", m.getCreationDate() != null ? m.getCreationDate().toString() : "");
-            DUP_RESULTS_WRITER.writeAttribute("modified", m.getModificationDate() != null ? m.getModificationDate().toString() : "");
-            DUP_RESULTS_WRITER.writeAttribute("hash", m.getFileHash());
-            DUP_RESULTS_WRITER.writeEndElement(); // </File>
-            DUP_RESULTS_WRITER.writeCharacters("\n");
+            Document doc = loadScanTotals();
+            if (doc == null) {
+                doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+                doc.appendChild(doc.createElement("ScanTotals"));
+            }
+            Element scan = findScanTotal(doc, key);
+            if (scan == null) {
+                scan = doc.createElement("Scan");
+                scan.setAttribute("key", key);
+                doc.getDocumentElement().appendChild(scan);
+            }
+            scan.setAttribute("files", String.valueOf(files));
+            scan.setAttribute("timestamp", LocalDateTime.now().format(TS_FMT));
+
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+
+            File file = new File(scanTotalsPath);
+            file.getParentFile().mkdirs();
+            transformer.transform(new DOMSource(doc), new StreamResult(file));
         } catch (Exception e) {
-            throw new RuntimeException("appendDuplicateResult fehlgeschlagen: " + e.getMessage(), e);
+            System.err.println("Dateizahlen konnten nicht gespeichert werden: " + e.getMessage());
         }
     }
 
-    public static synchronized void endDuplicateResults() {
-        if (DUP_RESULTS_WRITER == null) return;
+    private static Document loadScanTotals() {
+        File file = new File(scanTotalsPath);
+        if (!file.exists()) return null;
         try {
-            DUP_RESULTS_WRITER.writeCharacters("  ");
-            DUP_RESULTS_WRITER.writeEndElement(); // </Groups>
-            DUP_RESULTS_WRITER.writeCharacters("\n");
-            DUP_RESULTS_WRITER.writeEndElement(); // </DuplicateSearchResults>
-            DUP_RESULTS_WRITER.writeCharacters("\n");
-            DUP_RESULTS_WRITER.writeEndDocument();
-            DUP_RESULTS_WRITER.flush();
+            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+            doc.getDocumentElement().normalize();
+            // Einrückung des letzten Speicherns entfernen, sonst wächst sie bei jedem Speichern
+            NodeList children = doc.getDocumentElement().getChildNodes();
+            for (int i = children.getLength() - 1; i >= 0; i--) {
+                if (children.item(i).getNodeType() == Node.TEXT_NODE) {
+                    doc.getDocumentElement().removeChild(children.item(i));
+                }
+            }
+            return doc;
         } catch (Exception e) {
-            throw new RuntimeException("endDuplicateResults fehlgeschlagen: " + e.getMessage(), e);
-        } finally {
-            closeDuplicateQuietly();
+            System.err.println("Dateizahlen nicht lesbar: " + e.getMessage());
+            return null;
         }
     }
 
-    private static void closeDuplicateQuietly() {
-        try {
-            if (DUP_RESULTS_WRITER != null) {
-                DUP_RESULTS_WRITER.close();
-            }
-        } catch (Exception ignored) {}
-        DUP_RESULTS_WRITER = null;
-        DUP_RESULTS_FILE = null;
+    private static Element findScanTotal(Document doc, String key) {
+        if (doc == null) return null;
+        NodeList scans = doc.getDocumentElement().getElementsByTagName("Scan");
+        for (int i = 0; i < scans.getLength(); i++) {
+            Element scan = (Element) scans.item(i);
+            if (key.equals(scan.getAttribute("key"))) return scan;
+        }
+        return null;
     }
 
     // ========================================================================
@@ -329,6 +393,55 @@ public class XMLController {
             sFolder.setAttribute("On", String.valueOf(options.isSubFolderBoo()));
             rootElement.appendChild(sFolder);
 
+            Element hashThreads = doc.createElement("HashThreads");
+            hashThreads.setAttribute("count", String.valueOf(options.getHashThreads()));
+            rootElement.appendChild(hashThreads);
+
+            Element deviceStreams = doc.createElement("DeviceStreams");
+            deviceStreams.setAttribute("hdd", String.valueOf(options.getHddStreams()));
+            deviceStreams.setAttribute("ssd", String.valueOf(options.getSsdStreams()));
+            rootElement.appendChild(deviceStreams);
+
+            Element hashAlgorithm = doc.createElement("HashAlgorithm");
+            hashAlgorithm.setAttribute("name", safe(options.getHashAlgorithm()));
+            hashAlgorithm.setAttribute("cryptoConfirm", String.valueOf(options.isCryptoConfirm()));
+            rootElement.appendChild(hashAlgorithm);
+
+            Element byteCompare = doc.createElement("ByteCompare");
+            byteCompare.setAttribute("verify", String.valueOf(options.isByteVerify()));
+            rootElement.appendChild(byteCompare);
+
+            Element hashCache = doc.createElement("HashCache");
+            hashCache.setAttribute("On", String.valueOf(options.isUseHashCache()));
+            rootElement.appendChild(hashCache);
+
+            Element incremental = doc.createElement("IncrementalScan");
+            incremental.setAttribute("On", String.valueOf(options.isIncrementalScan()));
+            rootElement.appendChild(incremental);
+
+            Element catalog = doc.createElement("CompactCatalog");
+            catalog.setAttribute("On", String.valueOf(options.isCompactCatalog()));
+            rootElement.appendChild(catalog);
+
+            Element external = doc.createElement("ExternalGrouping");
+            external.setAttribute("On", String.valueOf(options.isExternalGrouping()));
+            rootElement.appendChild(external);
+
+            Element images = doc.createElement("SimilarImages");
+            images.setAttribute("On", String.valueOf(options.isSimilarImages()));
+            images.setAttribute("maxDistance", String.valueOf(options.getImageMaxDistance()));
+            rootElement.appendChild(images);
+
+            Element chunks = doc.createElement("ChunkOverlap");
+            chunks.setAttribute("On", String.valueOf(options.isChunkOverlap()));
+            chunks.setAttribute("minShare", String.valueOf(options.getChunkMinShare()));
+            rootElement.appendChild(chunks);
+
+            Element texts = doc.createElement("TextSimilarity");
+            texts.setAttribute("On", String.valueOf(options.isTextSimilarity()));
+            texts.setAttribute("minSimilarity", String.valueOf(options.getTextMinSimilarity()));
+            rootElement.appendChild(texts);
+
             TransformerFactory tf = TransformerFactory.newInstance();
             Transformer transformer = tf.newTransformer();
             transformer.setOutputProperty(OutputKeys.INDENT, "yes");
@@ -392,6 +505,14 @@ public class XMLController {
             sFolder.setAttribute("On", String.valueOf(options.isSubFolderBoo()));
             rootElement.appendChild(sFolder);
 
+            Element incremental = doc.createElement("IncrementalScan");
+            incremental.setAttribute("On", String.valueOf(options.isIncrementalScan()));
+            rootElement.appendChild(incremental);
+
+            Element directoryThreads = doc.createElement("DirectoryThreads");
+            directoryThreads.setAttribute("count", String.valueOf(options.getDirectoryThreads()));
+            rootElement.appendChild(directoryThreads);
+
             TransformerFactory tf = TransformerFactory.newInstance();
             Transformer transformer = tf.newTransformer();
             transformer.setOutputProperty(OutputKeys.INDENT, "yes");
@@ -465,6 +586,55 @@ public class XMLController {
             Element sFolder = (Element) rootElement.getElementsByTagName("SubFolder").item(0);
             options.setSubFolderBoo(Boolean.parseBoolean(sFolder.getAttribute("On")));
 
+            // Ab hier optionale Elemente (ältere Settings-Dateien kennen sie noch nicht)
+            Element hashThreads = (Element) rootElement.getElementsByTagName("HashThreads").item(0);
+            options.setHashThreads(hashThreads != null ? (int) parseLong(hashThreads.getAttribute("count"), 0L) : 0);
+
+            Element deviceStreams = (Element) rootElement.getElementsByTagName("DeviceStreams").item(0);
+            if (deviceStreams != null) {
+                options.setHddStreams((int) parseLong(deviceStreams.getAttribute("hdd"), 1L));
+                options.setSsdStreams((int) parseLong(deviceStreams.getAttribute("ssd"), 0L));
+            }
+
+            Element hashAlgorithm = (Element) rootElement.getElementsByTagName("HashAlgorithm").item(0);
+            if (hashAlgorithm != null) {
+                options.setHashAlgorithm(hashAlgorithm.getAttribute("name"));
+                options.setCryptoConfirm(Boolean.parseBoolean(hashAlgorithm.getAttribute("cryptoConfirm")));
+            }
+
+            Element byteCompare = (Element) rootElement.getElementsByTagName("ByteCompare").item(0);
+            options.setByteVerify(byteCompare != null && Boolean.parseBoolean(byteCompare.getAttribute("verify")));
+
+            Element hashCache = (Element) rootElement.getElementsByTagName("HashCache").item(0);
+            options.setUseHashCache(hashCache == null || Boolean.parseBoolean(hashCache.getAttribute("On")));
+
+            Element incremental = (Element) rootElement.getElementsByTagName("IncrementalScan").item(0);
+            options.setIncrementalScan(incremental != null && Boolean.parseBoolean(incremental.getAttribute("On")));
+
+            Element catalog = (Element) rootElement.getElementsByTagName("CompactCatalog").item(0);
+            options.setCompactCatalog(catalog != null && Boolean.parseBoolean(catalog.getAttribute("On")));
+
+            Element external = (Element) rootElement.getElementsByTagName("ExternalGrouping").item(0);
+            options.setExternalGrouping(external != null && Boolean.parseBoolean(external.getAttribute("On")));
+
+            Element images = (Element) rootElement.getElementsByTagName("SimilarImages").item(0);
+            if (images != null) {
+                options.setSimilarImages(Boolean.parseBoolean(images.getAttribute("On")));
+                options.setImageMaxDistance((int) parseLong(images.getAttribute("maxDistance"), 10L));
+            }
+
+            Element chunks = (Element) rootElement.getElementsByTagName("ChunkOverlap").item(0);
+            if (chunks != null) {
+                options.setChunkOverlap(Boolean.parseBoolean(chunks.getAttribute("On")));
+                options.setChunkMinShare((int) parseLong(chunks.getAttribute("minShare"), 50L));
+            }
+
+            Element texts = (Element) rootElement.getElementsByTagName("TextSimilarity").item(0);
+            if (texts != null) {
+                options.setTextSimilarity(Boolean.parseBoolean(texts.getAttribute("On")));
+                options.setTextMinSimilarity((int) parseLong(texts.getAttribute("minSimilarity"), 80L));
+            }
+
             return options;
         } catch (Exception e) {
             e.printStackTrace();
@@ -520,6 +690,12 @@ public class XMLController {
             Element sFolder = (Element) rootElement.getElementsByTagName("SubFolder").item(0);
             options.setSubFolderBoo(Boolean.parseBoolean(sFolder.getAttribute("On")));
 
+            Element incremental = (Element) rootElement.getElementsByTagName("IncrementalScan").item(0);
+            options.setIncrementalScan(incremental != null && Boolean.parseBoolean(incremental.getAttribute("On")));
+
+            Element directoryThreads = (Element) rootElement.getElementsByTagName("DirectoryThreads").item(0);
+            options.setDirectoryThreads(directoryThreads != null ? (int) parseLong(directoryThreads.getAttribute("count"), 1L) : 1);
+
             return options;
         } catch (Exception e) {
             e.printStackTrace();
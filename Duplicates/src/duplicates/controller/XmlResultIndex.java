@@ -0,0 +1,242 @@
+package duplicates.controller;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wahlfreier Zugriff auf die {@code <File>}-Elemente einer XML-Ergebnisdatei (Datei- oder
+ * Duplikatsuche).
+ *
+ * Beim ersten Öffnen wird die Datei einmal byteweise nach {@code "<File "} durchsucht und der
+ * Beginn jedes Elements in einer Nebendatei ("….xml.idx") abgelegt; sie gilt, solange Größe
+ * und Änderungszeit der XML-Datei passen. Der Index wird nur eingeblendet (memory-mapped),
+ * gelesen und per StAX geparst werden nur die angefragten Elemente.
+ * Ein wörtliches {@code '<'} kommt in XML-Attributwerten nicht vor, daher trifft die Suche
+ * nur echte Tags.
+ */
+public final class XmlResultIndex implements SavedResults {
+
+    private static final int MAGIC = 0x44584931; // "DXI1"
+    private static final int HEADER_SIZE = 24;   // MAGIC, Länge, Änderungszeit, Anzahl
+    private static final byte[] FILE_TAG = "File ".getBytes(StandardCharsets.US_ASCII); // jeweils nach '<'
+    private static final byte[] END_TAG = "/File>".getBytes(StandardCharsets.US_ASCII);
+    private static final XMLInputFactory XML_INPUT = XMLInputFactory.newInstance();
+    /** Wurzelelemente der Ergebnisdateien von Datei- und Duplikatsuche. */
+    private static final List<String> RESULT_ROOTS = List.of("FileSearchResults", "DuplicateSearchResults");
+
+    private final FileChannel xml;
+    private final FileChannel indexChannel;
+    private final LongBuffer offsets; // Anzahl + 1 Einträge, der letzte ist das Ende
+    private final int rowCount;
+    private final List<String> columns;
+
+    private XmlResultIndex(File xmlFile, File indexFile) throws IOException {
+        xml = FileChannel.open(xmlFile.toPath(), StandardOpenOption.READ);
+        indexChannel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (indexChannel.read(header, 0) < HEADER_SIZE) throw new EOFException("Index zu kurz: " + indexFile);
+            rowCount = header.getInt(20);
+            offsets = indexChannel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (rowCount + 1L) * 8).asLongBuffer();
+            columns = rowCount > 0 ? List.copyOf(attributes(0).keySet()) : List.of();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Öffnet die Datei; erzeugt den Offset-Index, falls er fehlt oder veraltet ist.
+     *
+     * @throws IOException auch, wenn die Datei keine Ergebnisdatei ist (z. B. "scan-totals.xml")
+     */
+    public static XmlResultIndex open(File xmlFile) throws IOException {
+        File indexFile = new File(xmlFile.getPath() + ".idx");
+        if (!isCurrent(indexFile, xmlFile)) buildIndex(xmlFile, indexFile);
+        XmlResultIndex index = new XmlResultIndex(xmlFile, indexFile);
+        // ohne <File>-Elemente: leeres Suchergebnis oder gar keine Ergebnisdatei
+        if (index.rowCount == 0 && !RESULT_ROOTS.contains(rootElement(xmlFile))) {
+            index.close();
+            throw new IOException("Keine Ergebnisdatei einer Datei- oder Duplikatsuche: " + xmlFile.getName());
+        }
+        return index;
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public synchronized List<String[]> read(int first, int count) throws IOException {
+        count = Math.max(0, Math.min(count, rowCount - first));
+        List<String[]> rows = new ArrayList<>(count);
+        if (count == 0) return rows;
+        // die Elemente einer Seite liegen hintereinander: ein Lesezugriff für alle
+        long base = offsets.get(first);
+        byte[] page = readBytes(base, (int) (offsets.get(first + count) - base));
+        for (int i = first; i < first + count; i++) {
+            int from = (int) (offsets.get(i) - base);
+            Map<String, String> attributes = parse(page, from, (int) (offsets.get(i + 1) - base) - from, i);
+            String[] row = new String[columns.size()];
+            for (int c = 0; c < row.length; c++) row[c] = attributes.getOrDefault(columns.get(c), "");
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (xml != null) xml.close();
+        } finally {
+            if (indexChannel != null) indexChannel.close();
+        }
+    }
+
+    // --- Interna ---
+
+    private byte[] readBytes(long position, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining()) {
+            if (xml.read(bytes, position + bytes.position()) < 0) throw new EOFException("XML-Datei zu kurz");
+        }
+        return bytes.array();
+    }
+
+    /** Attribute des Elements {@code row} in Dokumentreihenfolge. */
+    private Map<String, String> attributes(int row) throws IOException {
+        long start = offsets.get(row);
+        int length = (int) (offsets.get(row + 1) - start);
+        return parse(readBytes(start, length), 0, length, row);
+    }
+
+    private static Map<String, String> parse(byte[] data, int from, int length, int row) throws IOException {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        try {
+            // das Stück aus "<File …>" (+ "</File>" und Leerraum) ist für sich ein Dokument
+            XMLStreamReader r = XML_INPUT.createXMLStreamReader(new ByteArrayInputStream(data, from, length), "UTF-8");
+            while (r.hasNext()) {
+                if (r.next() == XMLStreamConstants.START_ELEMENT) {
+                    for (int i = 0; i < r.getAttributeCount(); i++) {
+                        attributes.put(r.getAttributeLocalName(i), r.getAttributeValue(i));
+                    }
+                    break;
+                }
+            }
+            r.close();
+        } catch (Exception e) {
+            throw new IOException("Ungültiger Eintrag " + row + ": " + e.getMessage(), e);
+        }
+        return attributes;
+    }
+
+    /** Name des Wurzelelements; null, wenn die Datei kein lesbares XML ist. */
+    private static String rootElement(File xmlFile) {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(xmlFile))) {
+            XMLStreamReader r = XML_INPUT.createXMLStreamReader(in);
+            try {
+                while (r.hasNext()) {
+                    if (r.next() == XMLStreamConstants.START_ELEMENT) return r.getLocalName();
+                }
+            } finally {
+                r.close();
+            }
+        } catch (Exception e) {
+            // kein XML
+        }
+        return null;
+    }
+
+    private static boolean isCurrent(File indexFile, File xmlFile) {
+        if (!indexFile.exists()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            return in.readInt() == MAGIC
+                    && in.readLong() == xmlFile.length()
+                    && in.readLong() == xmlFile.lastModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Ein Durchlauf über die Bytes: Beginn jedes {@code <File}-Elements; das Ende des letzten
+     * ist das erste folgende Tag, das nicht {@code </File>} ist.
+     */
+    private static void buildIndex(File xmlFile, File indexFile) throws IOException {
+        long length = xmlFile.length();
+        long modified = xmlFile.lastModified();
+        File temp = new File(indexFile.getPath() + ".tmp");
+        int count = 0;
+        long end = -1;
+        try (InputStream in = new FileInputStream(xmlFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeLong(length);
+            out.writeLong(modified);
+            out.writeInt(0); // Anzahl, wird unten nachgetragen
+
+            byte[] buffer = new byte[1 << 20];
+            int filled = 0;
+            long base = 0; // Dateiposition von buffer[0]
+            boolean eof = false;
+            while (true) {
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read < 0) eof = true;
+                else filled += read;
+
+                // ein Tag braucht bis zu 6 Folgebytes; der Rest wandert in den nächsten Durchlauf
+                int limit = eof ? filled : filled - 6;
+                int i = 0;
+                for (; i < limit; i++) {
+                    if (buffer[i] != '<') continue;
+                    if (matches(buffer, i + 1, filled, FILE_TAG)) {
+                        out.writeLong(base + i);
+                        count++;
+                        end = -1;
+                    } else if (count > 0 && end < 0 && !matches(buffer, i + 1, filled, END_TAG)) {
+                        end = base + i; // erstes fremdes Tag nach dem letzten Element
+                    }
+                }
+                if (eof) break;
+                System.arraycopy(buffer, i, buffer, 0, filled - i);
+                base += i;
+                filled -= i;
+            }
+            long position = base + filled;
+            out.writeLong(end >= 0 ? end : position);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw")) {
+            raf.seek(20);
+            raf.writeInt(count);
+        }
+        if (!temp.renameTo(indexFile)) {
+            indexFile.delete();
+            if (!temp.renameTo(indexFile)) throw new IOException("Index nicht speicherbar: " + indexFile);
+        }
+    }
+
+    private static boolean matches(byte[] data, int from, int limit, byte[] pattern) {
+        if (from + pattern.length > limit) return false;
+        for (int i = 0; i < pattern.length; i++) {
+            if (data[from + i] != pattern[i]) return false;
+        }
+        return true;
+    }
+}
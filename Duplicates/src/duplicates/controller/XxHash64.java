@@ -0,0 +1,126 @@
+package duplicates.controller;
+
+import duplicates.model.Digest;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming-Implementierung von xxHash64 (Seed 0), reines Java ohne Fremdbibliothek.
+ * Nicht kryptografisch, aber sehr schnell und gut verteilt.
+ */
+class XxHash64 implements HashStrategy.Hasher {
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    private long v1 = P1 + P2;
+    private long v2 = P2;
+    private long v3 = 0;
+    private long v4 = -P1;
+
+    // Rest, der noch keinen vollen 32-Byte-Streifen ergibt
+    private final ByteBuffer pending = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+    private long totalLength;
+
+    @Override
+    public void update(byte[] bytes, int offset, int length) {
+        update(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        totalLength += in.remaining();
+
+        // 1) angefangenen Streifen auffüllen
+        if (pending.position() > 0) {
+            while (pending.hasRemaining() && in.hasRemaining()) {
+                pending.put(in.get());
+            }
+            if (pending.hasRemaining()) {
+                buffer.position(buffer.limit());
+                return;
+            }
+            pending.flip();
+            stripe(pending);
+            pending.clear();
+        }
+
+        // 2) volle Streifen direkt aus dem Eingabepuffer
+        while (in.remaining() >= 32) {
+            stripe(in);
+        }
+
+        // 3) Rest merken
+        pending.put(in);
+        buffer.position(buffer.limit());
+    }
+
+    private void stripe(ByteBuffer b) {
+        v1 = round(v1, b.getLong());
+        v2 = round(v2, b.getLong());
+        v3 = round(v3, b.getLong());
+        v4 = round(v4, b.getLong());
+    }
+
+    @Override
+    public byte[] digest() {
+        return ByteBuffer.allocate(8).putLong(value()).array();
+    }
+
+    @Override
+    public Digest finish() {
+        return Digest.of64(value());
+    }
+
+    /** Schließt die Berechnung ab und liefert den Wert als long (z. B. für Block-Fingerabdrücke). */
+    long value() {
+        long h;
+        if (totalLength >= 32) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = P5;
+        }
+        h += totalLength;
+
+        pending.flip();
+        while (pending.remaining() >= 8) {
+            h ^= round(0, pending.getLong());
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if (pending.remaining() >= 4) {
+            h ^= (pending.getInt() & 0xFFFFFFFFL) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+        }
+        while (pending.hasRemaining()) {
+            h ^= (pending.get() & 0xFFL) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0, val);
+        return acc * P1 + P4;
+    }
+}
@@ -0,0 +1,121 @@
+package duplicates.model;
+
+/**
+ * Kompakter, unveränderlicher Hash-Wert (bis 256 Bit in vier longs).
+ *
+ * Ersetzt Hex-Strings als Gruppierungsschlüssel: Gleichheit und hashCode arbeiten direkt auf
+ * den longs, Hex-Text entsteht erst an der Grenze zu Tabelle/XML ({@link #toHex()}).
+ * {@link #UNREADABLE} markiert einen Lesefehler und ist nur mit sich selbst gleich (Vertrag von
+ * {@code equals}); wer gruppiert, muss ihn deshalb vorher über {@link #isUnreadable()} aussortieren.
+ */
+public final class Digest {
+
+    /** Datei (bzw. Block) konnte nicht gelesen werden; wird vor dem Gruppieren aussortiert. */
+    public static final Digest UNREADABLE = new Digest(0, 0L, 0L, 0L, 0L);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final int bits;
+    private final long w0, w1, w2, w3; // Big Endian, w0 = höchstwertige Bytes
+
+    private Digest(int bits, long w0, long w1, long w2, long w3) {
+        this.bits = bits;
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+    }
+
+    /** 64-Bit-Digest (z. B. XXH64) ohne Umweg über ein Byte-Array. */
+    public static Digest of64(long value) {
+        return new Digest(64, value, 0L, 0L, 0L);
+    }
+
+    /** 32-Bit-Digest (z. B. CRC32C). */
+    public static Digest of32(int value) {
+        return new Digest(32, (value & 0xFFFFFFFFL) << 32, 0L, 0L, 0L);
+    }
+
+    /**
+     * Digest aus Bytes (Big Endian, wie von MessageDigest geliefert), 1 bis 32 Bytes.
+     */
+    public static Digest of(byte[] bytes) {
+        if (bytes.length == 0 || bytes.length > 32) {
+            throw new IllegalArgumentException("Digest-Länge nicht unterstützt: " + bytes.length + " Bytes");
+        }
+        long[] w = new long[4];
+        for (int i = 0; i < bytes.length; i++) {
+            w[i >> 3] |= (bytes[i] & 0xFFL) << (56 - 8 * (i & 7));
+        }
+        return new Digest(bytes.length * 8, w[0], w[1], w[2], w[3]);
+    }
+
+    /** Gegenstück zu {@link #toHex()}; null bei ungültigem Text. */
+    public static Digest fromHex(String hex) {
+        if (hex == null || hex.isEmpty() || hex.length() % 2 != 0 || hex.length() > 64) return null;
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) return null;
+            bytes[i] = (byte) (hi << 4 | lo);
+        }
+        return of(bytes);
+    }
+
+    public boolean isUnreadable() {
+        return this == UNREADABLE;
+    }
+
+    /** Länge in Bit (0 bei {@link #UNREADABLE}). */
+    public int getBits() {
+        return bits;
+    }
+
+    /** Bytes in Big Endian (für die Binärablage im Hash-Cache). */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[bits / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (word(i >> 3) >>> (56 - 8 * (i & 7)));
+        }
+        return bytes;
+    }
+
+    /** Kleinbuchstaben-Hex, wie bisher in Tabelle und XML. */
+    public String toHex() {
+        if (isUnreadable()) return "";
+        char[] out = new char[bits / 4];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = HEX[(int) (word(i >> 4) >>> (60 - 4 * (i & 15))) & 0xF];
+        }
+        return new String(out);
+    }
+
+    private long word(int i) {
+        return switch (i) {
+            case 0 -> w0;
+            case 1 -> w1;
+            case 2 -> w2;
+            default -> w3;
+        };
+    }
+
+    /** Gleiche Bits; {@link #UNREADABLE} ist nur mit sich selbst gleich, nie mit einem echten Wert. */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Digest d) || isUnreadable() || d.isUnreadable()) return false;
+        return bits == d.bits && w0 == d.w0 && w1 == d.w1 && w2 == d.w2 && w3 == d.w3;
+    }
+
+    @Override
+    public int hashCode() {
+        // Hash-Bits sind bereits gleichverteilt, einfaches Falten genügt
+        return (int) (w0 >>> 32) ^ (int) w0 ^ (int) w1;
+    }
+
+    @Override
+    public String toString() {
+        return isUnreadable() ? "UNREADABLE" : toHex();
+    }
+}
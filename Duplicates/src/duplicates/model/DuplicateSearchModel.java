@@ -1,88 +1,294 @@
 package duplicates.model;
 
+import duplicates.controller.HashCache;
+import duplicates.controller.HashStrategies;
+import duplicates.controller.HashStrategy;
+
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.security.MessageDigest;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
-import java.time.ZoneId;
 
 /**
  * Modell-Klasse für eine einzelne Datei, die auf Duplikate geprüft wird.
  */
 public class DuplicateSearchModel {
 
-    private final File file;
-    private final String fileName;
-    private final String parentPath;
+    /** Größe des Kopf- bzw. Endblocks für die günstigen Vorstufen der Duplikatprüfung. */
+    public static final int PROBE_BLOCK_SIZE = 4 * 1024;
+
+    /** Ab dieser Dateigröße wird über Memory-Mapping statt über einen Stream gehasht. */
+    public static final long MAPPED_HASH_THRESHOLD = 64L * 1024 * 1024;
+
+    /** Größe eines gemappten Fensters; Dateien > 2 GB werden fensterweise verarbeitet. */
+    private static final long MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    /** Puffergröße für den Stream-Pfad. */
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    // Lesepuffer je Worker-Thread statt je Datei/Block
+    private static final ThreadLocal<byte[]> STREAM_BUFFER = ThreadLocal.withInitial(() -> new byte[STREAM_BUFFER_SIZE]);
+    private static final ThreadLocal<ByteBuffer> PROBE_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(PROBE_BLOCK_SIZE));
+
+    private final PathDictionary paths; // Pfad als (Ordner, Name) im Wörterbuch der Suche
+    private final int dirId;
+    private final int nameId;
     private final long fileSizeBytes;
     private final String fileType;
     private final LocalDate creationDate;
     private final LocalDate modificationDate;
-    private String fileHash; // wird bei Bedarf berechnet (lazy)
-
-    public DuplicateSearchModel(File file) {
-        this.file = file;
-        this.fileName = file.getName();
-        this.parentPath = file.getParent();
-        this.fileSizeBytes = file.length();
-        this.fileType = extractExtension(file.getName());
+    private final long lastModifiedMillis;
+    private final Object fileKey; // Gerät + Inode (null, wenn das Dateisystem keinen liefert)
+    private final HashStrategy hashStrategy;
+    private final HashCache hashCache; // optional
+    private Digest fileHash; // wird bei Bedarf berechnet (lazy)
+    private Digest confirmHash; // kryptografische Bestätigung (lazy)
+    private volatile boolean contentVerified; // Byte für Byte mit der Gruppe verglichen
+    private boolean fileHashCached; // voller Hash kam aus dem Cache
+    private Digest headHash; // Hash der ersten PROBE_BLOCK_SIZE Bytes (lazy)
+    private Digest tailHash; // Hash der letzten PROBE_BLOCK_SIZE Bytes (lazy)
+    private Digest imageHash; // Wahrnehmungs-Hash (nur beim Bildvergleich)
+    private int similarity = 100; // Ähnlichkeit zum Gruppenvertreter in %, exakte Duplikate 100
 
-        LocalDate created = null;
-        LocalDate modified = null;
-        try {
-            BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
-            created = attrs.creationTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-            modified = attrs.lastModifiedTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        } catch (Exception ignored) {}
-
-        this.creationDate = created;
-        this.modificationDate = modified;
+    /**
+     * Aus einem beim Listen gelesenen Eintrag – Größe, Datum und fileKey werden übernommen,
+     * die Datei wird dafür nicht erneut gestat't.
+     *
+     * @param paths        Pfad-Wörterbuch der Suche; Pfad und File-Objekt werden erst bei Bedarf daraus gebaut
+     * @param hashStrategy Verfahren für Kopf-, End- und vollen Hash
+     * @param hashCache    persistenter Cache für volle Hashes (null = ohne Cache)
+     */
+    public DuplicateSearchModel(FileEntry entry, PathDictionary paths, HashStrategy hashStrategy, HashCache hashCache) {
+        File file = entry.file();
+        String name = file.getName();
+        this.paths = paths;
+        this.dirId = paths.internDirectory(file.getParent());
+        this.nameId = paths.internName(name);
+        this.hashStrategy = hashStrategy;
+        this.hashCache = hashCache;
+        this.fileSizeBytes = entry.size();
+        this.fileType = paths.extension(name);
+        this.creationDate = entry.creationDate();
+        this.modificationDate = entry.modificationDate();
+        this.lastModifiedMillis = entry.modifiedMillis();
+        this.fileKey = entry.fileKey();
     }
 
     // --- Getter ---
-    public File getFile() { return file; }
-    public String getFileName() { return fileName; }
-    public String getParentPath() { return parentPath; }
+    public File getFile() { return paths.file(dirId, nameId); }
+    public String getFileName() { return paths.name(nameId); }
+    public String getParentPath() { return paths.directoryPath(dirId); }
+    public PathDictionary getPathDictionary() { return paths; }
+    public int getDirectoryId() { return dirId; }
+    public int getNameId() { return nameId; }
     public long getFileSizeBytes() { return fileSizeBytes; }
     public String getFileType() { return fileType; }
     public LocalDate getCreationDate() { return creationDate; }
     public LocalDate getModificationDate() { return modificationDate; }
+    public long getLastModifiedMillis() { return lastModifiedMillis; }
+    public Object getFileKey() { return fileKey; }
+    public HashStrategy getHashStrategy() { return hashStrategy; }
+
+    /**
+     * Hash der Datei mit dem gewählten Verfahren (lazy: nur beim ersten Aufruf).
+     * Ist ein Cache gesetzt, wird nur neu gehasht, wenn die Datei neu oder verändert ist.
+     * Thread-sicher: rufen mehrere Threads gleichzeitig, wird trotzdem nur einmal gehasht.
+     *
+     * @return Digest oder {@link Digest#UNREADABLE} bei Lesefehler
+     */
+    public synchronized Digest getFileHash() {
+        return fileHash != null ? fileHash : getFileHash(getFile());
+    }
 
     /**
-     * Berechnet einen MD5-Hash der Datei (lazy: nur beim ersten Aufruf).
+     * Wie {@link #getFileHash()}, mit der vom Aufrufer bereits aufgelösten Datei
+     * (spart den Weg über das Pfad-Wörterbuch).
      */
-    public String getFileHash() {
+    public synchronized Digest getFileHash(File file) {
         if (fileHash == null) {
-            fileHash = calculateHash(file);
+            Digest cached = hashCache != null ? hashCache.lookup(this, file, hashStrategy) : null;
+            fileHashCached = cached != null;
+            fileHash = cached != null ? cached : calculateAndStore(file, hashStrategy);
         }
         return fileHash;
     }
 
+    /** true, wenn der volle Hash aus dem persistenten Cache stammt. */
+    public synchronized boolean isFileHashCached() {
+        return fileHashCached;
+    }
+
+    /**
+     * SHA-256 der Datei (lazy). Bestätigt Treffer eines schnellen, nicht kryptografischen Hashes.
+     */
+    public synchronized Digest getConfirmHash() {
+        return confirmHash != null ? confirmHash : getConfirmHash(getFile());
+    }
+
+    /** Wie {@link #getConfirmHash()}, mit bereits aufgelöster Datei. */
+    public synchronized Digest getConfirmHash(File file) {
+        if (confirmHash == null) {
+            if (hashStrategy.isCryptographic()) {
+                confirmHash = getFileHash(file);
+            } else {
+                Digest cached = hashCache != null ? hashCache.lookup(this, file, HashStrategies.SHA_256) : null;
+                confirmHash = cached != null ? cached : calculateAndStore(file, HashStrategies.SHA_256);
+            }
+        }
+        return confirmHash;
+    }
+
+    /**
+     * Hash über den Kopfblock der Datei (lazy). Billige Vorstufe vor dem vollen Hash.
+     */
+    public Digest getHeadHash() {
+        return headHash != null ? headHash : getHeadHash(getFile());
+    }
+
+    /** Wie {@link #getHeadHash()}, mit bereits aufgelöster Datei. */
+    public Digest getHeadHash(File file) {
+        if (headHash == null) {
+            headHash = calculateBlockHash(file, 0, PROBE_BLOCK_SIZE);
+        }
+        return headHash;
+    }
+
+    /**
+     * Hash über den Endblock der Datei (lazy). Bei Dateien bis {@link #PROBE_BLOCK_SIZE}
+     * deckt sich der Endblock mit dem Kopfblock.
+     */
+    public Digest getTailHash() {
+        return tailHash != null ? tailHash : getTailHash(getFile());
+    }
+
+    /** Wie {@link #getTailHash()}, mit bereits aufgelöster Datei. */
+    public Digest getTailHash(File file) {
+        if (tailHash == null) {
+            long offset = Math.max(0, fileSizeBytes - PROBE_BLOCK_SIZE);
+            tailHash = calculateBlockHash(file, offset, PROBE_BLOCK_SIZE);
+        }
+        return tailHash;
+    }
+
+    /** Vom Byte-Vergleich gesetzt: Inhalt ist mit den anderen Gruppenmitgliedern identisch. */
+    public void markContentVerified() {
+        this.contentVerified = true;
+    }
+
+    public boolean isContentVerified() {
+        return contentVerified;
+    }
+
+    /** Vom Bildvergleich gesetzt: Wahrnehmungs-Hash statt Inhalts-Hash. */
+    public void setImageHash(Digest imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    public Digest getImageHash() {
+        return imageHash;
+    }
+
+    /** Ähnlichkeit zum Zentrum der Gruppe (ihr erstes Mitglied) in Prozent (100 bei exakten Duplikaten). */
+    public int getSimilarity() {
+        return similarity;
+    }
+
+    public void setSimilarity(int similarity) {
+        this.similarity = similarity;
+    }
+
+    /** true, wenn der volle Hash schon berechnet wurde (ohne ihn ggf. jetzt zu berechnen). */
+    public synchronized boolean hasFileHash() {
+        return fileHash != null;
+    }
+
+    /**
+     * Text für Tabelle und XML. Löst keine Berechnung aus: Gruppen, die nur per
+     * Byte-Vergleich bestätigt wurden, haben keinen vollen Hash.
+     */
+    public String getDisplayHash() {
+        if (fileHash != null) return fileHash.isUnreadable() ? "(Lesefehler)" : fileHash.toHex();
+        if (imageHash != null) return "pHash " + imageHash.toHex();
+        return contentVerified ? "(Bytevergleich)" : "";
+    }
+
     // --- Hilfsmethoden ---
-    private String extractExtension(String name) {
-        int dot = name.lastIndexOf('.');
-        return (dot >= 0 && dot < name.length() - 1) ? name.substring(dot + 1).toLowerCase() : "";
+
+    private Digest calculateAndStore(File file, HashStrategy strategy) {
+        Digest hash = calculateHash(file, strategy);
+        if (hashCache != null && !hash.isUnreadable()) {
+            hashCache.store(this, file, strategy, hash);
+        }
+        return hash;
     }
 
-    private String calculateHash(File file) {
+    /**
+     * Wählt anhand der Dateigröße zwischen Stream- und Mapping-Pfad.
+     * Beide Pfade füttern denselben Digest und liefern identische Hashes.
+     */
+    private Digest calculateHash(File file, HashStrategy strategy) {
         try {
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            byte[] buffer = new byte[8192];
-            try (var is = Files.newInputStream(file.toPath())) {
-                int read;
-                while ((read = is.read(buffer)) != -1) {
-                    digest.update(buffer, 0, read);
+            HashStrategy.Hasher digest = strategy.newHasher();
+            if (fileSizeBytes >= MAPPED_HASH_THRESHOLD) {
+                updateMapped(digest, file);
+            } else {
+                updateStreamed(digest, file);
+            }
+            return digest.finish();
+        } catch (Exception | InternalError e) {
+            // InternalError: Zugriff auf ein Mapping, dessen Datei währenddessen gekürzt wurde
+            return Digest.UNREADABLE;
+        }
+    }
+
+    private void updateStreamed(HashStrategy.Hasher digest, File file) throws Exception {
+        byte[] buffer = STREAM_BUFFER.get();
+        try (var is = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Hasht die Datei über gemappte Fenster. Die Länge wird vom Kanal gelesen, nicht aus
+     * {@link #fileSizeBytes}, damit eine inzwischen gekürzte Datei nicht über das Ende gemappt wird.
+     * Wird sie erst während des Lesens gekürzt, wirft der Zugriff einen {@link InternalError}.
+     */
+    private void updateMapped(HashStrategy.Hasher digest, File file) throws Exception {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            for (long pos = 0; pos < size; pos += MAPPED_WINDOW_SIZE) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Hash abgebrochen: " + file);
                 }
+                long len = Math.min(MAPPED_WINDOW_SIZE, size - pos);
+                MappedByteBuffer window = ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+                digest.update(window);
             }
-            byte[] hashBytes = digest.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashBytes) {
-                sb.append(String.format("%02x", b));
+        }
+    }
+
+    private Digest calculateBlockHash(File file, long offset, int length) {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            HashStrategy.Hasher digest = hashStrategy.newHasher();
+            ByteBuffer buffer = PROBE_BUFFER.get();
+            buffer.clear().limit(length);
+            long pos = offset;
+            while (buffer.hasRemaining()) {
+                int read = ch.read(buffer, pos);
+                if (read < 0) break;
+                pos += read;
             }
-            return sb.toString();
+            buffer.flip();
+            digest.update(buffer);
+            return digest.finish();
         } catch (Exception e) {
-            return "ERROR";
+            return Digest.UNREADABLE;
         }
     }
 }
@@ -9,6 +9,21 @@ public class DuplicateSearchOptionsModel extends FileSearchOptionsModel {
     private boolean fileSizeBoo;
     private boolean fileNameBoo;
     private boolean fileExtentionBoo;
+    private int hashThreads; // 0 = automatisch (Anzahl CPU-Kerne)
+    private int hddStreams = 1; // gleichzeitige Lese-Streams je drehender Platte
+    private int ssdStreams; // je SSD/NVMe, 0 = wie hashThreads
+    private String hashAlgorithm = "AUTO"; // Name eines HashStrategy, "AUTO" = Kalibrierung
+    private boolean cryptoConfirm; // Treffer zusätzlich per SHA-256 bestätigen
+    private boolean byteVerify; // Hash-Treffer zusätzlich Byte für Byte vergleichen
+    private boolean useHashCache = true; // persistenten Hash-Cache verwenden
+    private boolean compactCatalog; // Dateien spaltenweise sammeln, nach Größe sortieren (sehr große Bestände)
+    private boolean externalGrouping; // nach Größe sortierte Läufe auf die Platte auslagern (fester Speicher)
+    private boolean similarImages; // ähnliche Bilder per Wahrnehmungs-Hash statt identischer Dateien
+    private int imageMaxDistance = 10; // max. Hamming-Abstand (Bit von 64) für "ähnlich"
+    private boolean chunkOverlap; // Dateipaare mit gemeinsamen Blöcken (Content-Defined Chunking)
+    private int chunkMinShare = 50; // min. gemeinsamer Anteil in % der größeren Datei
+    private boolean textSimilarity; // nahezu gleiche Textdokumente (MinHash/LSH)
+    private int textMinSimilarity = 80; // min. geschätzte Jaccard-Ähnlichkeit in %
 
     public DuplicateSearchOptionsModel() {
         super();
@@ -59,12 +74,147 @@ public class DuplicateSearchOptionsModel extends FileSearchOptionsModel {
         this.fileExtentionBoo = fileExtentionBoo;
     }
 
+    public int getHashThreads() {
+        return hashThreads;
+    }
+
+    public void setHashThreads(int hashThreads) {
+        this.hashThreads = Math.max(0, hashThreads);
+    }
+
+    public int getHddStreams() {
+        return hddStreams;
+    }
+
+    public void setHddStreams(int hddStreams) {
+        this.hddStreams = Math.max(1, hddStreams);
+    }
+
+    public int getSsdStreams() {
+        return ssdStreams;
+    }
+
+    public void setSsdStreams(int ssdStreams) {
+        this.ssdStreams = Math.max(0, ssdStreams);
+    }
+
+    public String getHashAlgorithm() {
+        return hashAlgorithm;
+    }
+
+    public void setHashAlgorithm(String hashAlgorithm) {
+        this.hashAlgorithm = (hashAlgorithm == null || hashAlgorithm.isBlank()) ? "AUTO" : hashAlgorithm;
+    }
+
+    public boolean isCryptoConfirm() {
+        return cryptoConfirm;
+    }
+
+    public void setCryptoConfirm(boolean cryptoConfirm) {
+        this.cryptoConfirm = cryptoConfirm;
+    }
+
+    public boolean isByteVerify() {
+        return byteVerify;
+    }
+
+    public void setByteVerify(boolean byteVerify) {
+        this.byteVerify = byteVerify;
+    }
+
+    public boolean isUseHashCache() {
+        return useHashCache;
+    }
+
+    public void setUseHashCache(boolean useHashCache) {
+        this.useHashCache = useHashCache;
+    }
+
+    public boolean isCompactCatalog() {
+        return compactCatalog;
+    }
+
+    public void setCompactCatalog(boolean compactCatalog) {
+        this.compactCatalog = compactCatalog;
+    }
+
+    public boolean isExternalGrouping() {
+        return externalGrouping;
+    }
+
+    public void setExternalGrouping(boolean externalGrouping) {
+        this.externalGrouping = externalGrouping;
+    }
+
+    public boolean isSimilarImages() {
+        return similarImages;
+    }
+
+    public void setSimilarImages(boolean similarImages) {
+        this.similarImages = similarImages;
+    }
+
+    public int getImageMaxDistance() {
+        return imageMaxDistance;
+    }
+
+    public void setImageMaxDistance(int imageMaxDistance) {
+        this.imageMaxDistance = Math.max(0, Math.min(64, imageMaxDistance));
+    }
+
+    public boolean isChunkOverlap() {
+        return chunkOverlap;
+    }
+
+    public void setChunkOverlap(boolean chunkOverlap) {
+        this.chunkOverlap = chunkOverlap;
+    }
+
+    public int getChunkMinShare() {
+        return chunkMinShare;
+    }
+
+    public void setChunkMinShare(int chunkMinShare) {
+        this.chunkMinShare = Math.max(1, Math.min(100, chunkMinShare));
+    }
+
+    public boolean isTextSimilarity() {
+        return textSimilarity;
+    }
+
+    public void setTextSimilarity(boolean textSimilarity) {
+        this.textSimilarity = textSimilarity;
+    }
+
+    public int getTextMinSimilarity() {
+        return textMinSimilarity;
+    }
+
+    public void setTextMinSimilarity(int textMinSimilarity) {
+        this.textMinSimilarity = Math.max(1, Math.min(100, textMinSimilarity));
+    }
+
     @Override
     public String toString() {
         return super.toString() + " | Extended{" +
                 "fileSizeBoo=" + fileSizeBoo +
                 ", fileNameBoo=" + fileNameBoo +
                 ", fileExtentionBoo=" + fileExtentionBoo +
+                ", hashThreads=" + hashThreads +
+                ", hddStreams=" + hddStreams +
+                ", ssdStreams=" + ssdStreams +
+                ", hashAlgorithm='" + hashAlgorithm + '\'' +
+                ", cryptoConfirm=" + cryptoConfirm +
+                ", byteVerify=" + byteVerify +
+                ", useHashCache=" + useHashCache +
+                ", compactCatalog=" + compactCatalog +
+                ", externalGrouping=" + externalGrouping +
+                ", similarImages=" + similarImages +
+                ", imageMaxDistance=" + imageMaxDistance +
+                ", chunkOverlap=" + chunkOverlap +
+                ", chunkMinShare=" + chunkMinShare +
+                ", textSimilarity=" + textSimilarity +
+                ", textMinSimilarity=" + textMinSimilarity +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package duplicates.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Datei samt der beim Listen einmalig gelesenen Attribute.
+ *
+ * Wird von der Traversierung bis in Filter, Gruppierung und Ergebnis-Modelle durchgereicht,
+ * damit keine Stufe die Datei erneut stat'en muss ({@code isFile()}, {@code length()},
+ * {@code readAttributes} …).
+ *
+ * @param size           Größe in Byte
+ * @param createdMillis  Erstellungszeit (Epoch-ms; Dateisysteme ohne eigene Angabe liefern die Änderungszeit)
+ * @param modifiedMillis Änderungszeit (Epoch-ms)
+ * @param fileKey        Gerät + Inode (null, wenn das Dateisystem keinen liefert)
+ */
+public record FileEntry(File file, long size, long createdMillis, long modifiedMillis, Object fileKey) {
+
+    public static FileEntry of(File file, BasicFileAttributes attrs) {
+        return new FileEntry(file, attrs.size(), attrs.creationTime().toMillis(),
+                attrs.lastModifiedTime().toMillis(), attrs.fileKey());
+    }
+
+    /**
+     * Liest die Attribute einer einzelnen Datei (ein stat).
+     *
+     * @return Eintrag oder null, wenn die Datei nicht (mehr) existiert bzw. nicht lesbar ist
+     */
+    public static FileEntry read(File file) {
+        try {
+            return of(file, Files.readAttributes(file.toPath(), BasicFileAttributes.class));
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /** Eintrag ohne Attribute (alle Werte 0), wie es {@code File.length()} für fehlende Dateien liefert. */
+    public static FileEntry unreadable(File file) {
+        return new FileEntry(file, 0L, 0L, 0L, null);
+    }
+
+    public LocalDate creationDate() {
+        return toLocalDate(createdMillis);
+    }
+
+    public LocalDate modificationDate() {
+        return toLocalDate(modifiedMillis);
+    }
+
+    private static LocalDate toLocalDate(long millis) {
+        return millis != 0L ? Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate() : null;
+    }
+}
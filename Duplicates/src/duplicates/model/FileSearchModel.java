@@ -1,10 +1,7 @@
 package duplicates.model;
 
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDate;
-import java.time.ZoneId;
 
 /**
  * Modell-Klasse für ein einzelnes Suchergebnis.
@@ -12,53 +9,54 @@ import java.time.ZoneId;
  */
 public class FileSearchModel {
 
-    private final File file;
-    private final String absolutePath;
-    private final String fileName;
+    private final PathDictionary paths; // Pfad als (Ordner, Name) im Wörterbuch der Suche
+    private final int dirId;
+    private final int nameId;
     private final long fileSizeBytes;
     private final String fileExtension;
     private final LocalDate creationDate;
     private final LocalDate modificationDate;
 
-    public FileSearchModel(File file) {
-        this.file = file;
-        this.absolutePath = file.getAbsolutePath();
-        this.fileName = file.getName();
-        this.fileSizeBytes = file.length();
-        this.fileExtension = extractExtension(file.getName());
-
-        LocalDate created = null;
-        LocalDate modified = null;
-
-        try {
-            BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
-            created = attrs.creationTime()
-                    .toInstant()
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDate();
-            modified = attrs.lastModifiedTime()
-                    .toInstant()
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDate();
-        } catch (Exception ignored) {
-            // Falls nicht lesbar, bleiben Werte null
-        }
-
-        this.creationDate = created;
-        this.modificationDate = modified;
+    /**
+     * Aus einem beim Listen gelesenen Eintrag – ohne erneuten Zugriff auf das Dateisystem. Pfad
+     * und File-Objekt werden erst bei Bedarf aus dem Wörterbuch der Suche gebaut.
+     */
+    public FileSearchModel(FileEntry entry, PathDictionary paths) {
+        File file = entry.file().getAbsoluteFile();
+        String name = file.getName();
+        this.paths = paths;
+        this.dirId = paths.internDirectory(file.getParent());
+        this.nameId = paths.internName(name);
+        this.fileSizeBytes = entry.size();
+        this.fileExtension = paths.extension(name);
+        this.creationDate = entry.creationDate();
+        this.modificationDate = entry.modificationDate();
     }
 
     // --- Getter ---
     public File getFile() {
-        return file;
+        return paths.file(dirId, nameId);
     }
 
     public String getAbsolutePath() {
-        return absolutePath;
+        return getFile().getPath();
     }
 
     public String getFileName() {
-        return fileName;
+        return paths.name(nameId);
+    }
+
+    /** Wörterbuch und IDs, damit Tabellen den Pfad nicht erneut speichern müssen. */
+    public PathDictionary getPathDictionary() {
+        return paths;
+    }
+
+    public int getDirectoryId() {
+        return dirId;
+    }
+
+    public int getNameId() {
+        return nameId;
     }
 
     public long getFileSizeBytes() {
@@ -84,17 +82,11 @@ public class FileSearchModel {
 
     /** Liefert Dateityp als Klartext ("Ordner", "txt", "jpg" etc.) */
     public String getDisplayType() {
-        return file.isDirectory() ? "Ordner" : fileExtension.isBlank() ? "Unbekannt" : fileExtension;
-    }
-
-    // --- Hilfsmethode ---
-    private String extractExtension(String name) {
-        int dot = name.lastIndexOf('.');
-        return (dot >= 0 && dot < name.length() - 1) ? name.substring(dot + 1).toLowerCase() : "";
+        return getFile().isDirectory() ? "Ordner" : fileExtension.isBlank() ? "Unbekannt" : fileExtension;
     }
 
     @Override
     public String toString() {
-        return String.format("%s (%s MB, Typ: %s)", fileName, String.format("%.1f", getFileSizeMB()), getDisplayType());
+        return String.format("%s (%s MB, Typ: %s)", getFileName(), String.format("%.1f", getFileSizeMB()), getDisplayType());
     }
 }
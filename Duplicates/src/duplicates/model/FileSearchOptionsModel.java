@@ -15,6 +15,8 @@ public class FileSearchOptionsModel {
     private String fileModificationDateOperator;
     private LocalDate modificationDate;
     private boolean subFolderBoo;
+    private boolean incrementalScan;      // unveränderte Ordner aus dem Verzeichnis-Snapshot übernehmen
+    private int directoryThreads = 1;     // gleichzeitig gelistete Verzeichnisse, 1 = sequentiell
 
     public FileSearchOptionsModel() {
         // Leerer Konstruktor für einfaches Befüllen per Setter
@@ -108,6 +110,22 @@ public class FileSearchOptionsModel {
         this.subFolderBoo = subFolderBoo;
     }
 
+    public boolean isIncrementalScan() {
+        return incrementalScan;
+    }
+
+    public void setIncrementalScan(boolean incrementalScan) {
+        this.incrementalScan = incrementalScan;
+    }
+
+    public int getDirectoryThreads() {
+        return directoryThreads;
+    }
+
+    public void setDirectoryThreads(int directoryThreads) {
+        this.directoryThreads = Math.max(1, directoryThreads);
+    }
+
     @Override
     public String toString() {
         return "DuplicateSearchOptions{" +
@@ -120,6 +138,8 @@ public class FileSearchOptionsModel {
                 ", fileModificationDateOperator='" + fileModificationDateOperator + '\'' +
                 ", modificationDate=" + modificationDate +
                 ", subFolderBoo=" + subFolderBoo +
+                ", incrementalScan=" + incrementalScan +
+                ", directoryThreads=" + directoryThreads +
                 '}';
     }
 }
\ No newline at end of file
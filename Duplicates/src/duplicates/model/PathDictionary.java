@@ -0,0 +1,153 @@
+package duplicates.model;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pfad-Wörterbuch als Präfixbaum: jedes Verzeichnis ist ein Knoten (Elternknoten + Name) und
+ * wird genau einmal gespeichert, Dateien sind nur noch (Verzeichnis-ID, Namens-ID).
+ *
+ * Dateinamen liegen als UTF-8 in einem gemeinsamen Byte-Puffer (Namens-ID = Position), ohne
+ * eigenes Objekt je Name. Vollständige Pfade bzw. {@link File}-Objekte entstehen erst bei Bedarf
+ * über {@link #file(int, int)} / {@link #directoryPath(int)} – also nur für Zeilen, die angezeigt,
+ * gelesen oder geschrieben werden.
+ *
+ * Ein Wörterbuch je Suche; die Modelle halten es fest, solange ihre Ergebnisse leben.
+ * Thread-sicher: nur das Anlegen ist synchronisiert. Knoten und Namen werden nur angehängt und
+ * über die volatilen Zähler veröffentlicht, Lesen ({@link #name}, {@link #directoryPath}) läuft
+ * daher ohne Sperre.
+ */
+public final class PathDictionary {
+
+    /** Kein Verzeichnis (Datei ohne Elternpfad). */
+    public static final int NO_DIR = -1;
+
+    /** Elternknoten + Name eines Verzeichnisses (Schlüssel für die Kind-Suche). */
+    private record DirKey(int parent, String segment) {
+    }
+
+    /** Zuletzt aufgelöstes Verzeichnis: Dateien eines Ordners kommen meist hintereinander. */
+    private record LastDir(String path, int id) {
+    }
+
+    // Beim Vergrößern kopiert; ein Eintrag ist lesbar, sobald der Zähler ihn umfasst
+    private volatile int[] dirParent = new int[256];
+    private volatile String[] dirSegment = new String[256];
+    private volatile int dirCount;
+    private final Map<DirKey, Integer> dirIndex = new HashMap<>();
+    private volatile LastDir lastDir;
+
+    private volatile byte[] names = new byte[64 * 1024];
+    private volatile int namesLength;
+
+    private final Map<String, String> extensions = new ConcurrentHashMap<>();
+
+    /** Legt das Verzeichnis einer Datei an (falls neu) und liefert seine ID. */
+    public int internDirectory(String path) {
+        if (path == null) return NO_DIR;
+        LastDir last = lastDir;
+        if (last != null && last.path.equals(path)) return last.id;
+
+        int id;
+        synchronized (this) {
+            Path p = Paths.get(path);
+            id = p.getRoot() != null ? child(NO_DIR, p.getRoot().toString()) : NO_DIR;
+            for (Path segment : p) {
+                id = child(id, segment.toString());
+            }
+        }
+        lastDir = new LastDir(path, id);
+        return id;
+    }
+
+    /** Hängt einen Dateinamen an den Namenspuffer an und liefert seine ID. */
+    public synchronized int internName(String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > 0xFFFF) throw new IllegalArgumentException("Dateiname zu lang: " + name);
+        int needed = namesLength + 2 + utf8.length;
+        if (needed < 0 || needed > Integer.MAX_VALUE - 8) throw new IllegalStateException("Namenspuffer voll");
+        byte[] pool = names;
+        if (needed > pool.length) {
+            pool = Arrays.copyOf(pool, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, pool.length * 2L)));
+        }
+        int id = namesLength;
+        pool[id] = (byte) (utf8.length >>> 8);
+        pool[id + 1] = (byte) utf8.length;
+        System.arraycopy(utf8, 0, pool, id + 2, utf8.length);
+        names = pool;
+        namesLength = needed; // veröffentlicht den Namen
+        return id;
+    }
+
+    /** Dateiendung (klein geschrieben) als gemeinsame Instanz. */
+    public String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        String ext = (dot >= 0 && dot < name.length() - 1) ? name.substring(dot + 1).toLowerCase() : "";
+        return extensions.computeIfAbsent(ext, e -> e);
+    }
+
+    public String name(int nameId) {
+        if (nameId >= namesLength) throw new IllegalArgumentException("Unbekannte Namens-ID: " + nameId);
+        byte[] pool = names; // nach dem Zähler lesen: enthält den Namen sicher
+        int length = (pool[nameId] & 0xFF) << 8 | (pool[nameId + 1] & 0xFF);
+        return new String(pool, nameId + 2, length, StandardCharsets.UTF_8);
+    }
+
+    /** Vollständiger Pfad eines Verzeichnisses (null für {@link #NO_DIR}). */
+    public String directoryPath(int dirId) {
+        if (dirId == NO_DIR) return null;
+        if (dirId >= dirCount) throw new IllegalArgumentException("Unbekannte Verzeichnis-ID: " + dirId);
+        int[] parents = dirParent; // nach dem Zähler lesen; Elternknoten sind stets älter
+        String[] segments = dirSegment;
+        int depth = 0;
+        for (int id = dirId; id != NO_DIR; id = parents[id]) depth++;
+        String[] parts = new String[depth];
+        for (int id = dirId; id != NO_DIR; id = parents[id]) parts[--depth] = segments[id];
+
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) != File.separatorChar) sb.append(File.separatorChar);
+            sb.append(part);
+        }
+        return sb.toString();
+    }
+
+    /** Baut das File-Objekt einer Datei neu auf (wird bewusst nicht zwischengespeichert). */
+    public File file(int dirId, int nameId) {
+        String parent = directoryPath(dirId);
+        String name = name(nameId);
+        return parent != null ? new File(parent, name) : new File(name);
+    }
+
+    public int getDirectoryCount() {
+        return dirCount;
+    }
+
+    // --- Interna ---
+
+    private int child(int parent, String segment) {
+        DirKey key = new DirKey(parent, segment);
+        Integer id = dirIndex.get(key);
+        if (id != null) return id;
+        id = dirCount;
+        int[] parents = dirParent;
+        String[] segments = dirSegment;
+        if (id == parents.length) {
+            parents = Arrays.copyOf(parents, id * 2);
+            segments = Arrays.copyOf(segments, id * 2);
+        }
+        parents[id] = parent;
+        segments[id] = segment;
+        dirParent = parents;
+        dirSegment = segments;
+        dirCount = id + 1; // veröffentlicht den Knoten
+        dirIndex.put(key, id);
+        return id;
+    }
+}
@@ -1,18 +1,29 @@
 package duplicates.renderer;
 
 import javax.swing.*;
+import javax.swing.border.Border;
 import javax.swing.table.*;
 import java.awt.*;
 
 /**
  * Renderer für Gruppenfärbung, Zebra-Streifen und Gruppentrennlinien.
+ * Gruppengrenzen kommen vorberechnet aus {@link GroupBands}; je Zelle fallen weder
+ * Objekte noch Zugriffe auf Nachbarzeilen an.
  */
 public class DuplicateGroupRenderer extends DefaultTableCellRenderer {
 
-    private final TableModel model;
+    // --- Standardfarben (abwechselnd je Gruppe und Zeile in der Gruppe) ---
+    private static final Color GROUP_EVEN_A = new Color(230, 240, 255); // hellblau
+    private static final Color GROUP_EVEN_B = new Color(245, 250, 255); // fast weiß
+    private static final Color GROUP_ODD_A  = new Color(255, 245, 230); // hellbeige
+    private static final Color GROUP_ODD_B  = new Color(255, 250, 240); // fast weiß
 
-    public DuplicateGroupRenderer(TableModel model) {
-        this.model = model;
+    private static final Border GROUP_SEPARATOR = BorderFactory.createMatteBorder(2, 0, 0, 0, Color.GRAY);
+
+    private final GroupBands bands;
+
+    public DuplicateGroupRenderer(GroupBands bands) {
+        this.bands = bands;
     }
 
     @Override
@@ -24,40 +35,20 @@ public class DuplicateGroupRenderer extends DefaultTableCellRenderer {
 
         if (!(c instanceof JLabel label)) return c;
 
-        int modelRow = table.convertRowIndexToModel(row);
-        int groupId = (Integer) model.getValueAt(modelRow, model.getColumnCount() - 1); // groupId ist letzte Spalte
-
-        // --- Standardfarben (abwechselnd je Gruppe und Zeile in der Gruppe) ---
-        Color groupEvenA = new Color(230, 240, 255); // hellblau
-        Color groupEvenB = new Color(245, 250, 255); // fast weiß
-        Color groupOddA  = new Color(255, 245, 230); // hellbeige
-        Color groupOddB  = new Color(255, 250, 240); // fast weiß
-
-        boolean isGroupEven = (groupId % 2 == 0);
         boolean isRowEven = (row % 2 == 0);
 
         if (!isSelected) {
-            if (isGroupEven) {
-                label.setBackground(isRowEven ? groupEvenA : groupEvenB);
+            if (bands.isOddGroup(row)) {
+                label.setBackground(isRowEven ? GROUP_ODD_A : GROUP_ODD_B);
             } else {
-                label.setBackground(isRowEven ? groupOddA : groupOddB);
+                label.setBackground(isRowEven ? GROUP_EVEN_A : GROUP_EVEN_B);
             }
         } else {
             label.setBackground(table.getSelectionBackground());
         }
 
         // --- Horizontale Linie oben, wenn neue Gruppe beginnt ---
-        int prevGroupId = -1;
-        if (row > 0) {
-            int prevModelRow = table.convertRowIndexToModel(row - 1);
-            prevGroupId = (Integer) model.getValueAt(prevModelRow, model.getColumnCount() - 1);
-        }
-
-        if (groupId != prevGroupId) {
-            label.setBorder(BorderFactory.createMatteBorder(2, 0, 0, 0, Color.GRAY));
-        } else {
-            label.setBorder(null);
-        }
+        label.setBorder(bands.isGroupStart(row) ? GROUP_SEPARATOR : null);
 
         return label;
     }
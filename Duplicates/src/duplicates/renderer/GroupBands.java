@@ -0,0 +1,14 @@
+package duplicates.renderer;
+
+/**
+ * Vorberechnete Gruppengrenzen einer Duplikat-Tabelle, je Zeile in Anzeigereihenfolge.
+ * Die Tabelle hält sie beim Einfügen bzw. Sortieren aktuell, der Renderer liest nur.
+ */
+public interface GroupBands {
+
+    /** true, wenn in dieser Zeile eine neue Gruppe beginnt (Trennlinie oben). */
+    boolean isGroupStart(int viewRow);
+
+    /** Wechselt von Gruppe zu Gruppe (Farbe der Gruppe). */
+    boolean isOddGroup(int viewRow);
+}
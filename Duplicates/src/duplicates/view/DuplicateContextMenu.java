@@ -1,7 +1,6 @@
 package duplicates.view;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -11,7 +10,7 @@ import java.nio.file.*;
 
 public class DuplicateContextMenu {
 
-    public DuplicateContextMenu(JTable table, DefaultTableModel model) {
+    DuplicateContextMenu(JTable table, ResultTableModel model) {
         JPopupMenu menu = new JPopupMenu();
         JMenuItem openItem = new JMenuItem("Öffnen");
         JMenuItem showItem = new JMenuItem("Im Ordner anzeigen");
@@ -51,14 +50,12 @@ public class DuplicateContextMenu {
         propsItem.addActionListener(e -> performAction(table, model, "props"));
     }
 
-    private void performAction(JTable table, DefaultTableModel model, String action) {
+    private void performAction(JTable table, ResultTableModel model, String action) {
         int row = table.getSelectedRow();
         if (row < 0) return;
 
         int modelRow = table.convertRowIndexToModel(row);
-        String name = (String) model.getValueAt(modelRow, 2);
-        String parent = (String) model.getValueAt(modelRow, 3);
-        Path path = Paths.get(parent, name);
+        Path path = model.getFile(modelRow).toPath();
 
         try {
             switch (action) {
@@ -0,0 +1,142 @@
+package duplicates.view;
+
+import duplicates.model.DuplicateSearchModel;
+import duplicates.renderer.GroupBands;
+
+import javax.swing.RowSorter;
+import javax.swing.event.RowSorterEvent;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Duplikat-Tabelle: gemeinsame Spalten plus 7 Hash, 8 Ähnlichkeit, 9 groupId (letzte Spalte).
+ *
+ * Gruppengrenzen für den Renderer ({@link GroupBands}) werden mitgeführt: in Modellreihenfolge
+ * beim Anhängen Zeile für Zeile, bei aktiver Sortierung nach jedem Sortieren in einem Durchlauf
+ * über die Anzeigezeilen. Der Renderer fragt je Zelle nur ein Bit ab.
+ */
+class DuplicateResultTableModel extends ResultTableModel implements GroupBands {
+
+    static final int COL_HASH = 7, COL_SIMILARITY = 8, COL_GROUP = 9;
+
+    private int[] hashIds = new int[0];
+    private byte[] similarities = new byte[0];
+    private int[] groupIds = new int[0];
+
+    // Gruppengrenzen je Modellzeile (unsortiert) bzw. je Anzeigezeile (sortiert)
+    private final BitSet groupStarts = new BitSet();
+    private final BitSet oddGroups = new BitSet();
+    private final BitSet viewStarts = new BitSet();
+    private final BitSet viewOdd = new BitSet();
+    private RowSorter<?> sorter;
+    private boolean sorted;
+
+    DuplicateResultTableModel() {
+        super("✓", "Dateiname", "Pfad", "Größe (Byte)", "Typ", "Erstellt", "Geändert", "Hash", "Ähnlichkeit (%)", "groupId");
+    }
+
+    /** Hängt einen Stapel an und meldet ihn als ein Einfüge-Ereignis. */
+    void addAll(List<DuplicateSearchModel> models, List<Integer> groups) {
+        if (models.isEmpty()) return;
+        int first = size;
+        for (int i = 0; i < models.size(); i++) {
+            DuplicateSearchModel m = models.get(i);
+            int row = appendRow(m.getPathDictionary(), m.getDirectoryId(), m.getNameId(), m.getFileSizeBytes(),
+                    m.getFileType(), m.getCreationDate(), m.getModificationDate());
+            hashIds[row] = textId(m.getDisplayHash());
+            similarities[row] = (byte) Math.max(0, Math.min(100, m.getSimilarity()));
+            groupIds[row] = groups.get(i);
+            markBand(groupStarts, oddGroups, row, row > 0 ? groupIds[row - 1] : 0, groupIds[row]);
+        }
+        fireTableRowsInserted(first, size - 1);
+    }
+
+    /**
+     * Verfolgt die Sortierung der Tabelle: nach jedem Sortieren werden die Gruppengrenzen der
+     * Anzeigereihenfolge neu berechnet (ohne Sortierschlüssel gilt die Modellreihenfolge).
+     */
+    void attach(RowSorter<?> rowSorter) {
+        this.sorter = rowSorter;
+        rowSorter.addRowSorterListener(e -> {
+            if (e.getType() == RowSorterEvent.Type.SORTED) recomputeViewBands();
+        });
+        recomputeViewBands();
+    }
+
+    private void recomputeViewBands() {
+        sorted = sorter != null && !sorter.getSortKeys().isEmpty();
+        viewStarts.clear();
+        viewOdd.clear();
+        if (!sorted) return;
+        int rows = sorter.getViewRowCount();
+        int previous = 0;
+        for (int view = 0; view < rows; view++) {
+            int group = groupIds[sorter.convertRowIndexToModel(view)];
+            markBand(viewStarts, viewOdd, view, previous, group);
+            previous = group;
+        }
+    }
+
+    @Override
+    protected void rowsCompacted() {
+        groupStarts.clear();
+        oddGroups.clear();
+        for (int row = 0; row < size; row++) {
+            markBand(groupStarts, oddGroups, row, row > 0 ? groupIds[row - 1] : 0, groupIds[row]);
+        }
+    }
+
+    /** Setzt Grenze und Farbwechsel für {@code row}; die Vorgängerzeile muss schon gesetzt sein. */
+    private static void markBand(BitSet starts, BitSet odd, int row, int previousGroup, int group) {
+        boolean start = row == 0 || group != previousGroup;
+        starts.set(row, start);
+        odd.set(row, row > 0 && (start != odd.get(row - 1)));
+    }
+
+    // --- GroupBands (Anzeigezeilen) ---
+
+    @Override
+    public boolean isGroupStart(int viewRow) {
+        return sorted ? viewStarts.get(viewRow) : groupStarts.get(viewRow);
+    }
+
+    @Override
+    public boolean isOddGroup(int viewRow) {
+        return sorted ? viewOdd.get(viewRow) : oddGroups.get(viewRow);
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        super.grow(capacity);
+        hashIds = Arrays.copyOf(hashIds, capacity);
+        similarities = Arrays.copyOf(similarities, capacity);
+        groupIds = Arrays.copyOf(groupIds, capacity);
+    }
+
+    @Override
+    protected void moveRow(int from, int to) {
+        super.moveRow(from, to);
+        hashIds[to] = hashIds[from];
+        similarities[to] = similarities[from];
+        groupIds[to] = groupIds[from];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return switch (column) {
+            case COL_SIMILARITY, COL_GROUP -> Integer.class;
+            default -> super.getColumnClass(column);
+        };
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return switch (column) {
+            case COL_HASH -> text(hashIds[row]);
+            case COL_SIMILARITY -> (int) similarities[row];
+            case COL_GROUP -> groupIds[row];
+            default -> super.getValueAt(row, column);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package duplicates.view;
 
+import duplicates.controller.HashStrategies;
 import duplicates.controller.XMLController;
 import duplicates.model.DuplicateSearchOptionsModel;
 
@@ -31,6 +32,22 @@ public class DuplicateSearchOptionPanel extends JPanel {
     private JCheckBox chkFileName;
     private JCheckBox chkSubFolder;
     private JCheckBox chkFileExtention;
+    private JSpinner hashThreadsSpinner;
+    private JSpinner hddStreamsSpinner;
+    private JSpinner ssdStreamsSpinner;
+    private JComboBox<String> hashAlgorithmCombo;
+    private JCheckBox chkCryptoConfirm;
+    private JCheckBox chkByteVerify;
+    private JCheckBox chkSimilarImages;
+    private JSpinner imageDistanceSpinner;
+    private JCheckBox chkChunkOverlap;
+    private JSpinner chunkShareSpinner;
+    private JCheckBox chkTextSimilarity;
+    private JSpinner textSimilaritySpinner;
+    private JCheckBox chkHashCache;
+    private JCheckBox chkIncrementalScan;
+    private JCheckBox chkCompactCatalog;
+    private JCheckBox chkExternalGrouping;
 
     private final MainScreenView mainScreenView;
 
@@ -112,9 +129,81 @@ public class DuplicateSearchOptionPanel extends JPanel {
         gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL;
         centerPanel.add(modifiedPanel, gbc); gbc.fill = GridBagConstraints.NONE;
 
-        // 7: Checkboxes
+        // 7: Parallele Hash-Threads
+        row++; gbc.gridy = row; gbc.gridx = 0;
+        centerPanel.add(new JLabel("Hash-Threads (0 = auto):"), gbc);
+        JPanel threadsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        hashThreadsSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 256, 1));
+        threadsPanel.add(hashThreadsSpinner);
+        // Lese-Streams je Datenträger: HDD wenige (Suchbewegungen), SSD viele
+        threadsPanel.add(new JLabel("je HDD:"));
+        hddStreamsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 16, 1));
+        threadsPanel.add(hddStreamsSpinner);
+        threadsPanel.add(new JLabel("je SSD (0 = auto):"));
+        ssdStreamsSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 256, 1));
+        threadsPanel.add(ssdStreamsSpinner);
+        gbc.gridx = 1;
+        centerPanel.add(threadsPanel, gbc);
+
+        // 8: Hash-Verfahren
+        row++; gbc.gridy = row; gbc.gridx = 0;
+        centerPanel.add(new JLabel("Hash-Verfahren:"), gbc);
+        JPanel hashPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        hashAlgorithmCombo = new JComboBox<>(HashStrategies.names());
+        hashAlgorithmCombo.setEditable(false);
+        hashPanel.add(hashAlgorithmCombo);
+        chkCryptoConfirm = new JCheckBox("Treffer per SHA-256 bestätigen");
+        hashPanel.add(chkCryptoConfirm);
+        chkByteVerify = new JCheckBox("Byte für Byte verifizieren");
+        hashPanel.add(chkByteVerify);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL;
+        centerPanel.add(hashPanel, gbc); gbc.fill = GridBagConstraints.NONE;
+
+        // 9: Bildvergleich (ähnliche statt identische Dateien)
+        row++; gbc.gridy = row; gbc.gridx = 0;
+        centerPanel.add(new JLabel("Ähnliche Bilder:"), gbc);
+        JPanel imagePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        chkSimilarImages = new JCheckBox("Bildvergleich (Wahrnehmungs-Hash)");
+        chkSimilarImages.setToolTipText("Neu kodierte oder verkleinerte Bilder finden; vergleicht nur Bilddateien");
+        imagePanel.add(chkSimilarImages);
+        imagePanel.add(new JLabel("max. Abweichung (Bit):"));
+        imageDistanceSpinner = new JSpinner(new SpinnerNumberModel(10, 0, 32, 1));
+        imagePanel.add(imageDistanceSpinner);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL;
+        centerPanel.add(imagePanel, gbc); gbc.fill = GridBagConstraints.NONE;
+
+        // 10: Blockvergleich (teilweise gleiche Dateien)
+        row++; gbc.gridy = row; gbc.gridx = 0;
+        centerPanel.add(new JLabel("Teilüberlappung:"), gbc);
+        JPanel chunkPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        chkChunkOverlap = new JCheckBox("Blockvergleich (Content-Defined Chunking)");
+        chkChunkOverlap.setToolTipText("Dateipaare mit gemeinsamen Abschnitten finden, z. B. VM-Images oder Backups; nur Dateien ab 256 KB");
+        chunkPanel.add(chkChunkOverlap);
+        chunkPanel.add(new JLabel("min. gemeinsam (%):"));
+        chunkShareSpinner = new JSpinner(new SpinnerNumberModel(50, 1, 100, 5));
+        chunkPanel.add(chunkShareSpinner);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL;
+        centerPanel.add(chunkPanel, gbc); gbc.fill = GridBagConstraints.NONE;
+
+        // 11: Textvergleich (nahezu gleiche Dokumente)
+        row++; gbc.gridy = row; gbc.gridx = 0;
+        centerPanel.add(new JLabel("Ähnliche Texte:"), gbc);
+        JPanel textPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        chkTextSimilarity = new JCheckBox("Textvergleich (MinHash)");
+        chkTextSimilarity.setToolTipText("Nahezu gleiche Dokumente gruppieren, z. B. Exporte mit anderem Zeitstempel; nur Textformate");
+        textPanel.add(chkTextSimilarity);
+        textPanel.add(new JLabel("min. Ähnlichkeit (%):"));
+        textSimilaritySpinner = new JSpinner(new SpinnerNumberModel(80, 1, 100, 5));
+        textPanel.add(textSimilaritySpinner);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL;
+        centerPanel.add(textPanel, gbc); gbc.fill = GridBagConstraints.NONE;
+
+        // Vergleichsarten schließen sich aus (höchstens eine aktiv)
+        exclusive(chkSimilarImages, chkChunkOverlap, chkTextSimilarity);
+
+        // 12: Checkboxes
         row++; gbc.gridy = row; gbc.gridx = 0; gbc.gridwidth = 2;
-        JPanel checkPanel = new JPanel(new GridLayout(2, 2, 8, 4));
+        JPanel checkPanel = new JPanel(new GridLayout(4, 2, 8, 4));
         chkSubFolder   = new JCheckBox("Unterordner berücksichtigen");
         chkFileSize    = new JCheckBox("Dateigröße prüfen");
         chkFileName    = new JCheckBox("Dateiname prüfen");
@@ -123,6 +212,16 @@ public class DuplicateSearchOptionPanel extends JPanel {
         checkPanel.add(chkFileSize);
         checkPanel.add(chkFileName);
         checkPanel.add(chkFileExtention);
+        chkHashCache = new JCheckBox("Hash-Cache verwenden", true);
+        checkPanel.add(chkHashCache);
+        chkIncrementalScan = new JCheckBox("Inkrementeller Scan (Verzeichnis-Snapshot)");
+        checkPanel.add(chkIncrementalScan);
+        chkCompactCatalog = new JCheckBox("Kompakter Katalog (sehr große Bestände)");
+        chkCompactCatalog.setToolTipText("Dateien speichersparend sammeln und erst nach der Traversierung nach Größe gruppieren");
+        checkPanel.add(chkCompactCatalog);
+        chkExternalGrouping = new JCheckBox("Auf Platte auslagern (fester Speicher)");
+        chkExternalGrouping.setToolTipText("Nach Größe sortierte Teillisten auf die lokale Platte schreiben und zusammenführen; früher bei knappem Heap");
+        checkPanel.add(chkExternalGrouping);
         centerPanel.add(checkPanel, gbc);
 
         JPanel wrapper = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
@@ -239,9 +338,37 @@ public class DuplicateSearchOptionPanel extends JPanel {
         chkFileSize.setSelected(false);
         chkFileName.setSelected(false);
         chkFileExtention.setSelected(false);
+        hashThreadsSpinner.setValue(0);
+        hddStreamsSpinner.setValue(1);
+        ssdStreamsSpinner.setValue(0);
+        hashAlgorithmCombo.setSelectedItem(HashStrategies.AUTO);
+        chkCryptoConfirm.setSelected(false);
+        chkByteVerify.setSelected(false);
+        chkSimilarImages.setSelected(false);
+        imageDistanceSpinner.setValue(10);
+        chkChunkOverlap.setSelected(false);
+        chunkShareSpinner.setValue(50);
+        chkTextSimilarity.setSelected(false);
+        textSimilaritySpinner.setValue(80);
+        chkHashCache.setSelected(true);
+        chkIncrementalScan.setSelected(false);
+        chkCompactCatalog.setSelected(false);
+        chkExternalGrouping.setSelected(false);
         mainScreenView.clearFolderSelection();
     }
 
+    /** Beim Anhaken einer Box werden die anderen abgewählt; alle abwählen bleibt möglich. */
+    private static void exclusive(JCheckBox... boxes) {
+        for (JCheckBox box : boxes) {
+            box.addItemListener(e -> {
+                if (!box.isSelected()) return;
+                for (JCheckBox other : boxes) {
+                    if (other != box) other.setSelected(false);
+                }
+            });
+        }
+    }
+
     private JComboBox<String> createOpCombo() {
         JComboBox<String> combo = new JComboBox<>(new String[]{"<", "<=", "=", ">=", ">"});
         combo.setEditable(false);
@@ -301,6 +428,22 @@ public class DuplicateSearchOptionPanel extends JPanel {
         model.setFileSizeBoo(chkFileSize.isSelected());
         model.setFileNameBoo(chkFileName.isSelected());
         model.setFileExtentionBoo(chkFileExtention.isSelected());
+        model.setHashThreads((Integer) hashThreadsSpinner.getValue());
+        model.setHddStreams((Integer) hddStreamsSpinner.getValue());
+        model.setSsdStreams((Integer) ssdStreamsSpinner.getValue());
+        model.setHashAlgorithm((String) hashAlgorithmCombo.getSelectedItem());
+        model.setCryptoConfirm(chkCryptoConfirm.isSelected());
+        model.setByteVerify(chkByteVerify.isSelected());
+        model.setSimilarImages(chkSimilarImages.isSelected());
+        model.setImageMaxDistance((Integer) imageDistanceSpinner.getValue());
+        model.setChunkOverlap(chkChunkOverlap.isSelected());
+        model.setChunkMinShare((Integer) chunkShareSpinner.getValue());
+        model.setTextSimilarity(chkTextSimilarity.isSelected());
+        model.setTextMinSimilarity((Integer) textSimilaritySpinner.getValue());
+        model.setUseHashCache(chkHashCache.isSelected());
+        model.setIncrementalScan(chkIncrementalScan.isSelected());
+        model.setCompactCatalog(chkCompactCatalog.isSelected());
+        model.setExternalGrouping(chkExternalGrouping.isSelected());
         return model;
     }
 
@@ -319,6 +462,22 @@ public class DuplicateSearchOptionPanel extends JPanel {
         chkFileSize.setSelected(model.isFileSizeBoo());
         chkFileName.setSelected(model.isFileNameBoo());
         chkFileExtention.setSelected(model.isFileExtentionBoo());
+        hashThreadsSpinner.setValue(model.getHashThreads());
+        hddStreamsSpinner.setValue(model.getHddStreams());
+        ssdStreamsSpinner.setValue(model.getSsdStreams());
+        hashAlgorithmCombo.setSelectedItem(model.getHashAlgorithm());
+        chkCryptoConfirm.setSelected(model.isCryptoConfirm());
+        chkByteVerify.setSelected(model.isByteVerify());
+        chkSimilarImages.setSelected(model.isSimilarImages());
+        imageDistanceSpinner.setValue(Math.min(32, model.getImageMaxDistance()));
+        chkChunkOverlap.setSelected(model.isChunkOverlap());
+        chunkShareSpinner.setValue(model.getChunkMinShare());
+        chkTextSimilarity.setSelected(model.isTextSimilarity());
+        textSimilaritySpinner.setValue(model.getTextMinSimilarity());
+        chkHashCache.setSelected(model.isUseHashCache());
+        chkIncrementalScan.setSelected(model.isIncrementalScan());
+        chkCompactCatalog.setSelected(model.isCompactCatalog());
+        chkExternalGrouping.setSelected(model.isExternalGrouping());
     }
 
     private String textOrEmpty(JFormattedTextField f) {
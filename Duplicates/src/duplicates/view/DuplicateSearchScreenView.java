@@ -1,6 +1,8 @@
 package duplicates.view;
 
+import duplicates.controller.DuplicateResultStore;
 import duplicates.controller.DuplicateSearchController;
+import duplicates.controller.ResultWriter;
 import duplicates.controller.XMLController;
 import duplicates.model.DuplicateSearchModel;
 import duplicates.model.DuplicateSearchOptionsModel;
@@ -9,8 +11,12 @@ import duplicates.renderer.DuplicateGroupRenderer;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Vector;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Hauptfenster für die Duplikatsuche.
@@ -22,15 +28,27 @@ public class DuplicateSearchScreenView extends JFrame {
     private final DuplicateSearchController controller = new DuplicateSearchController();
 
     private final JTable resultTable;
-    private final DefaultTableModel tableModel;
+    private final DuplicateResultTableModel tableModel;
+    private final DefaultTableModel hardlinkModel; // Hardlinks getrennt von echten Duplikaten
     private final JProgressBar progressBar;
-    private final JButton btnAbort, btnDelete;
+    private final JButton btnAbort, btnDelete, btnExport;
+
+    // Ergebnisse binär je Sitzung (eigener Schreib-Thread); XML nur als Export auf Knopfdruck
+    private volatile ResultWriter resultWriter;
+    private File resultFile;
+    private Timer writerStatusTimer;
+    private boolean searchFailed; // Suche mit Fehler abgebrochen: Ergebnisdatei unvollständig
 
     /** Wir publizieren (Model + groupId) als Paket, damit die groupId nicht „verloren“ geht. */
     private static final class RowItem {
         final DuplicateSearchModel model;
         final int groupId;
-        RowItem(DuplicateSearchModel m, int gid) { this.model = m; this.groupId = gid; }
+        final boolean hardlink; // groupId ist dann die Hardlink-Satz-ID
+        RowItem(DuplicateSearchModel m, int gid, boolean hardlink) {
+            this.model = m;
+            this.groupId = gid;
+            this.hardlink = hardlink;
+        }
     }
 
     private SwingWorker<Void, RowItem> worker;
@@ -44,31 +62,13 @@ public class DuplicateSearchScreenView extends JFrame {
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-        // --- Spalten (groupId sichtbar als letzte Spalte) ---
-        String[] columns = {
-                "✓", "Dateiname", "Pfad", "Größe (Byte)", "Typ", "Erstellt", "Geändert", "Hash", "groupId"
-        };
-
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return switch (columnIndex) {
-                    case 0 -> Boolean.class;   // Checkbox
-                    case 3 -> Long.class;      // Größe
-                    case 8 -> Integer.class;   // groupId
-                    default -> String.class;
-                };
-            }
-
-            @Override
-            public boolean isCellEditable(int row, int col) {
-                return col == 0; // Nur Checkbox editierbar
-            }
-        };
+        // --- Spalten (groupId sichtbar als letzte Spalte), spaltenweise gespeichert ---
+        tableModel = new DuplicateResultTableModel();
 
         resultTable = new JTable(tableModel);
         resultTable.setFillsViewportHeight(true);
         resultTable.setAutoCreateRowSorter(true);
+        tableModel.attach(resultTable.getRowSorter());
 
         // Einheitlicher Renderer für alle Spalten außer der Checkbox
         DuplicateGroupRenderer renderer = new DuplicateGroupRenderer(tableModel);
@@ -80,6 +80,31 @@ public class DuplicateSearchScreenView extends JFrame {
         // Kontextmenü installieren
         new DuplicateContextMenu(resultTable, tableModel);
 
+        // --- Hardlinks: mehrere Namen derselben Datei, Löschen spart keinen Platz ---
+        hardlinkModel = new DefaultTableModel(new String[]{"Dateiname", "Pfad", "Größe (Byte)", "Satz"}, 0) {
+            @Override
+            public Class<?> getColumnClass(int columnIndex) {
+                return switch (columnIndex) {
+                    case 2 -> Long.class;
+                    case 3 -> Integer.class;
+                    default -> String.class;
+                };
+            }
+
+            @Override
+            public boolean isCellEditable(int row, int col) {
+                return false;
+            }
+        };
+        JTable hardlinkTable = new JTable(hardlinkModel);
+        hardlinkTable.setFillsViewportHeight(true);
+        hardlinkTable.setAutoCreateRowSorter(true);
+        hardlinkTable.getColumnModel().getColumn(1).setPreferredWidth(420);
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Duplikate", new JScrollPane(resultTable));
+        tabs.addTab("Hardlinks", new JScrollPane(hardlinkTable));
+
         // --- Fortschritt ---
         progressBar = new JProgressBar(0, 100);
         progressBar.setStringPainted(true);
@@ -87,19 +112,24 @@ public class DuplicateSearchScreenView extends JFrame {
         // --- Buttons ---
         btnAbort = new JButton("Abbrechen");
         btnDelete = new JButton("Löschen");
+        btnExport = new JButton("XML-Export");
+        btnExport.setToolTipText("Ergebnisse dieser Suche als XML neben der Ergebnisdatei ablegen");
+        btnExport.setEnabled(false);
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         buttonPanel.add(btnAbort);
         buttonPanel.add(btnDelete);
+        buttonPanel.add(btnExport);
 
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.add(buttonPanel, BorderLayout.NORTH);
-        mainPanel.add(new JScrollPane(resultTable), BorderLayout.CENTER);
+        mainPanel.add(tabs, BorderLayout.CENTER);
         mainPanel.add(progressBar, BorderLayout.SOUTH);
         add(mainPanel);
 
         btnAbort.addActionListener(e -> cancelSearch());
         btnDelete.addActionListener(e -> deleteSelected());
+        btnExport.addActionListener(e -> exportXml());
 
         // Spaltenbreiten anpassen
         configureColumnWidths();
@@ -138,66 +168,151 @@ public class DuplicateSearchScreenView extends JFrame {
         // 7: Hash
         colModel.getColumn(7).setPreferredWidth(260);
 
-        // 8: groupId sichtbar, aber schmal
-        colModel.getColumn(8).setMaxWidth(60);
-        colModel.getColumn(8).setMinWidth(40);
+        // 8: Ähnlichkeit (100 bei exakten Duplikaten)
+        colModel.getColumn(8).setPreferredWidth(90);
+
+        // 9: groupId sichtbar, aber schmal
+        colModel.getColumn(9).setMaxWidth(60);
+        colModel.getColumn(9).setMinWidth(40);
     }
 
     private void startSearch() {
         progressBar.setValue(0);
         progressBar.setIndeterminate(false);
 
+        try {
+            resultFile = DuplicateResultStore.newSessionFile();
+            resultWriter = new ResultWriter(resultFile);
+            writerStatusTimer = new Timer(500, e -> showWriterStatus());
+            writerStatusTimer.start();
+        } catch (IOException e) {
+            e.printStackTrace(); // Suche läuft auch ohne gespeicherte Ergebnisse
+        }
+
         worker = new SwingWorker<>() {
             @Override
             protected Void doInBackground() {
-                XMLController.beginDuplicateResults("results/duplicates.xml");
-
-                // PUBLISHE JEDE ZEILE MIT IHRER groupId -> keine Vermischung mehr
-                controller.searchDuplicates(
-                        options,
-                        selectedFolders,
-                        (model, groupId) -> {
-                            if (!isCancelled()) {
-                                publish(new RowItem(model, groupId));
-                            }
-                        },
-                        this::setProgress
-                );
-
-                XMLController.endDuplicateResults();
+                try {
+                    // PUBLISHE JEDE ZEILE MIT IHRER groupId -> keine Vermischung mehr
+                    controller.searchDuplicates(
+                            options,
+                            selectedFolders,
+                            (model, groupId) -> {
+                                if (!isCancelled()) {
+                                    ResultWriter writer = resultWriter;
+                                    if (writer != null) writer.submit(model, groupId); // Suchthread, nicht EDT
+                                    publish(new RowItem(model, groupId, false));
+                                }
+                            },
+                            (model, linkSetId) -> {
+                                if (!isCancelled()) {
+                                    publish(new RowItem(model, linkSetId, true));
+                                }
+                            },
+                            this::setProgress
+                    );
+                } finally {
+                    closeResultWriter(); // auch bei Fehlern: sonst fehlen Index und Abschluss der Datei
+                }
                 return null;
             }
 
             @Override
             protected void process(List<RowItem> chunks) {
+                List<DuplicateSearchModel> models = new ArrayList<>(chunks.size());
+                List<Integer> groups = new ArrayList<>(chunks.size());
                 for (RowItem item : chunks) {
-                    addRow(item.model, item.groupId);
-                    XMLController.appendDuplicateResult(item.model, item.groupId);
+                    if (item.hardlink) {
+                        hardlinkModel.addRow(new Object[]{item.model.getFileName(), item.model.getParentPath(),
+                                item.model.getFileSizeBytes(), item.groupId});
+                        continue;
+                    }
+                    models.add(item.model);
+                    groups.add(item.groupId);
                 }
+                tableModel.addAll(models, groups); // ein Einfüge-Ereignis je Stapel
             }
 
             @Override
             protected void done() {
                 btnAbort.setEnabled(false);
                 progressBar.setValue(100);
+                if (isCancelled()) return;
+                try {
+                    get();
+                    progressBar.setString(controller.getStatistics().toSummary());
+                } catch (ExecutionException e) {
+                    // Stufe der Suche fehlgeschlagen: Ergebnisse sind unvollständig
+                    Throwable cause = e.getCause() instanceof CompletionException c && c.getCause() != null
+                            ? c.getCause() : e.getCause();
+                    cause.printStackTrace();
+                    searchFailed = true;
+                    btnExport.setEnabled(false);
+                    progressBar.setString("Suche fehlgeschlagen – Ergebnisse unvollständig");
+                    JOptionPane.showMessageDialog(DuplicateSearchScreenView.this,
+                            "Die Suche ist fehlgeschlagen, die Ergebnisse sind unvollständig:\n" + cause,
+                            "Fehler", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
         };
 
         worker.execute();
     }
 
-    private void addRow(DuplicateSearchModel model, int groupId) {
-        Vector<Object> row = new Vector<>();
-        row.add(false); // Checkbox
-        row.add(model.getFileName());
-        row.add(model.getParentPath());
-        row.add(model.getFileSizeBytes());
-        row.add(model.getFileType());
-        row.add(model.getCreationDate() != null ? model.getCreationDate().toString() : "-");
-        row.add(model.getModificationDate() != null ? model.getModificationDate().toString() : "-");
-        row.add(model.getFileHash());
-        row.add(groupId); // groupId sichtbar am Ende
-        tableModel.addRow(row);
+    /** Schließt die Ergebnisdatei (nach dem Ende der Suche, im Worker-Thread). */
+    private void closeResultWriter() {
+        ResultWriter writer = resultWriter;
+        if (writer == null) return;
+        boolean ok = true;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            ok = false; // bereits vom Schreib-Thread protokolliert
+        }
+        boolean exportable = ok;
+        SwingUtilities.invokeLater(() -> {
+            if (writerStatusTimer != null) writerStatusTimer.stop();
+            showWriterStatus();
+            btnExport.setEnabled(exportable && !searchFailed);
+        });
+    }
+
+    /** Warteschlange und geschriebene Bytes der Ergebnisdatei als Tooltip am Fortschrittsbalken. */
+    private void showWriterStatus() {
+        ResultWriter writer = resultWriter;
+        if (writer == null) return;
+        progressBar.setToolTipText(String.format("Ergebnisdatei %s: %,d KB geschrieben, %,d Zeilen in der Warteschlange",
+                writer.getFile().getName(), writer.getBytesWritten() / 1024, writer.getQueueDepth()));
+    }
+
+    /** Wandelt die Ergebnisdatei im Hintergrund nach XML um. */
+    private void exportXml() {
+        String xmlPath = resultFile.getPath().replaceFirst("\\.dsr$", ".xml");
+        btnExport.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                XMLController.exportDuplicateResults(resultFile.getPath(), xmlPath);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                btnExport.setEnabled(!searchFailed);
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(DuplicateSearchScreenView.this,
+                            "Ergebnisse exportiert nach " + xmlPath, "Info",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(DuplicateSearchScreenView.this,
+                            "Export fehlgeschlagen: " + e.getMessage(), "Fehler",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
 
     private void cancelSearch() {
@@ -209,11 +324,6 @@ public class DuplicateSearchScreenView extends JFrame {
     }
 
     private void deleteSelected() {
-        for (int i = tableModel.getRowCount() - 1; i >= 0; i--) {
-            Object v = tableModel.getValueAt(i, 0);
-            if (v instanceof Boolean b && b) {
-                tableModel.removeRow(i);
-            }
-        }
+        tableModel.removeChecked();
     }
 }
@@ -0,0 +1,60 @@
+package duplicates.view;
+
+import duplicates.model.FileSearchModel;
+
+import java.io.File;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Dateisuche-Tabelle: gemeinsame Spalten plus 7 Systemdatei (schreibgeschützt), 8 Versteckt.
+ */
+class FileResultTableModel extends ResultTableModel {
+
+    static final int COL_READ_ONLY = 7, COL_HIDDEN = 8;
+
+    private final BitSet readOnly = new BitSet();
+    private final BitSet hidden = new BitSet();
+
+    FileResultTableModel() {
+        super("✓", "Dateiname", "Dateipfad", "Größe (Byte)", "Typ", "Erstellt", "Geändert", "Systemdatei", "Versteckt");
+    }
+
+    /** Hängt einen Stapel an und meldet ihn als ein Einfüge-Ereignis. */
+    void addAll(List<FileSearchModel> models) {
+        if (models.isEmpty()) return;
+        int first = size;
+        for (FileSearchModel m : models) {
+            File file = m.getFile();
+            int row = appendRow(m.getPathDictionary(), m.getDirectoryId(), m.getNameId(), m.getFileSizeBytes(),
+                    m.getDisplayType(), m.getCreationDate(), m.getModificationDate());
+            readOnly.set(row, file.isFile() && !file.canWrite());
+            hidden.set(row, file.isHidden());
+        }
+        fireTableRowsInserted(first, size - 1);
+    }
+
+    @Override
+    protected void moveRow(int from, int to) {
+        super.moveRow(from, to);
+        readOnly.set(to, readOnly.get(from));
+        hidden.set(to, hidden.get(from));
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return switch (column) {
+            case COL_READ_ONLY, COL_HIDDEN -> Boolean.class;
+            default -> super.getColumnClass(column);
+        };
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return switch (column) {
+            case COL_READ_ONLY -> readOnly.get(row);
+            case COL_HIDDEN -> hidden.get(row);
+            default -> super.getValueAt(row, column);
+        };
+    }
+}
@@ -31,6 +31,8 @@ public class FileSearchOptionPanel extends JPanel {
     private JComboBox<String> modifiedDateOperator;
     private JFormattedTextField modificationDate;
     private JCheckBox chkSubFolder;
+    private JCheckBox chkIncrementalScan;
+    private JSpinner directoryThreadsSpinner;
 
     // --- Referenz auf MainScreenView, um Ordnerliste auszulesen ---
     private final MainScreenView mainScreenView;
@@ -155,8 +157,23 @@ public class FileSearchOptionPanel extends JPanel {
         gbc.gridx = 0;
         gbc.gridwidth = 2;
         centerPanel.add(chkSubFolder = new JCheckBox("Unterordner berücksichtigen"), gbc);
+
+        row++;
+        gbc.gridy = row;
+        centerPanel.add(chkIncrementalScan = new JCheckBox("Inkrementeller Scan (Verzeichnis-Snapshot)"), gbc);
         gbc.gridwidth = 1;
 
+        // --- Parallele Verzeichnisauflistung (z. B. für NAS mit hoher Latenz) ---
+        row++;
+        gbc.gridy = row;
+        gbc.gridx = 0;
+        centerPanel.add(new JLabel("Verzeichnis-Threads:"), gbc);
+
+        directoryThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 64, 1));
+        directoryThreadsSpinner.setToolTipText("1 = sequentiell; mehr Threads lohnen vor allem bei Netzlaufwerken");
+        gbc.gridx = 1;
+        centerPanel.add(directoryThreadsSpinner, gbc);
+
         // --- Center Panel in Wrapper setzen ---
         JPanel wrapper = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
         wrapper.add(centerPanel);
@@ -244,6 +261,8 @@ public class FileSearchOptionPanel extends JPanel {
         modifiedDateOperator.setSelectedItem(model.getFileModificationDateOperator() != null ? model.getFileModificationDateOperator() : "=");
         modificationDate.setText(model.getModificationDate() != null ? model.getModificationDate().format(DATE_FMT) : "");
         chkSubFolder.setSelected(model.isSubFolderBoo());
+        chkIncrementalScan.setSelected(model.isIncrementalScan());
+        directoryThreadsSpinner.setValue(model.getDirectoryThreads());
     }
 
     // --- Erstellt ein Model-Objekt aus den Eingaben
@@ -256,6 +275,8 @@ public class FileSearchOptionPanel extends JPanel {
         model.setFileCreationDateOperator((String) createdDateOperator.getSelectedItem());
         model.setFileModificationDateOperator((String) modifiedDateOperator.getSelectedItem());
         model.setSubFolderBoo(chkSubFolder.isSelected());
+        model.setIncrementalScan(chkIncrementalScan.isSelected());
+        model.setDirectoryThreads((Integer) directoryThreadsSpinner.getValue());
         return model;
     }
 
@@ -297,6 +318,8 @@ public class FileSearchOptionPanel extends JPanel {
         modifiedDateOperator.setSelectedItem("=");
         modificationDate.setText("");
         chkSubFolder.setSelected(false);
+        chkIncrementalScan.setSelected(false);
+        directoryThreadsSpinner.setValue(1);
         mainScreenView.clearFolderSelection();
     }
 
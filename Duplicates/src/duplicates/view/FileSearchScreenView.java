@@ -23,7 +23,7 @@ public class FileSearchScreenView extends JFrame {
     private final FileSearchController controller = new FileSearchController();
 
     private final JTable resultTable;
-    private final DefaultTableModel tableModel;
+    private final FileResultTableModel tableModel;
     private final JProgressBar progressBar;
     private final JButton btnAbort;
     private final JButton btnDelete;
@@ -49,27 +49,8 @@ public class FileSearchScreenView extends JFrame {
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-        // --- Tabelle ---
-        String[] columns = {
-                "✓", "Dateiname", "Dateipfad", "Größe (Byte)", "Typ", "Erstellt", "Geändert", "Systemdatei", "Versteckt"
-        };
-
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return switch (columnIndex) {
-                    case 0 -> Boolean.class;
-                    case 3 -> Long.class;
-                    case 7, 8 -> Boolean.class;
-                    default -> String.class;
-                };
-            }
-
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 0;
-            }
-        };
+        // --- Tabelle (spaltenweise gespeichert) ---
+        tableModel = new FileResultTableModel();
 
         resultTable = new JTable(tableModel);
         resultTable.setAutoCreateRowSorter(true);
@@ -159,10 +140,7 @@ public class FileSearchScreenView extends JFrame {
         selectAll.setHorizontalAlignment(SwingConstants.CENTER);
         checkboxColumn.setHeaderRenderer((table, value, isSelected, hasFocus, row, column) -> selectAll);
         selectAll.addActionListener(e -> {
-            boolean checked = selectAll.isSelected();
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                tableModel.setValueAt(checked, i, 0);
-            }
+            tableModel.setAllChecked(selectAll.isSelected());
         });
         resultTable.getTableHeader().addMouseListener(new MouseAdapter() {
             @Override
@@ -198,7 +176,7 @@ public class FileSearchScreenView extends JFrame {
 
             @Override
             protected void process(List<FileSearchModel> chunks) {
-                for (FileSearchModel model : chunks) addResultRow(model);
+                tableModel.addAll(chunks); // ein Einfüge-Ereignis je Stapel
             }
 
             @Override
@@ -220,23 +198,6 @@ public class FileSearchScreenView extends JFrame {
         worker.execute();
     }
 
-    /** Ergebniszeile hinzufügen **/
-    private void addResultRow(FileSearchModel model) {
-        SwingUtilities.invokeLater(() -> {
-            Vector<Object> row = new Vector<>();
-            row.add(false);
-            row.add(model.getFileName());
-            row.add(model.getFile().getParent());
-            row.add(model.getFileSizeBytes());
-            row.add(model.getDisplayType());
-            row.add(model.getCreationDate() != null ? model.getCreationDate().toString() : "-");
-            row.add(model.getModificationDate() != null ? model.getModificationDate().toString() : "-");
-            row.add(model.getFile().isFile() && !model.getFile().canWrite());
-            row.add(model.getFile().isHidden());
-            tableModel.addRow(row);
-        });
-    }
-
     /** Dateien löschen **/
     private void deleteSelectedFiles() {
         // deine vorherige Delete-Methode hier unverändert
@@ -282,12 +243,7 @@ public class FileSearchScreenView extends JFrame {
                         resultTable.setRowSelectionInterval(row, row);
 
                         // Pfad der Datei
-                        String name = (String) tableModel.getValueAt(row, 1);
-                        String parent = (String) tableModel.getValueAt(row, 2);
-                        Path path = (parent == null || parent.isBlank())
-                                ? Paths.get(name)
-                                : Paths.get(parent, name);
-                        File file = path.toFile();
+                        File file = tableModel.getFile(resultTable.convertRowIndexToModel(row));
 
                         // --- Aktivierung prüfen ---
                         openItem.setEnabled(isOpenableFile(file));
@@ -312,11 +268,7 @@ public class FileSearchScreenView extends JFrame {
         int row = resultTable.getSelectedRow();
         if (row < 0) return;
 
-        String name = (String) tableModel.getValueAt(row, 1);
-        String parent = (String) tableModel.getValueAt(row, 2);
-        Path path = (parent == null || parent.isBlank())
-                ? Paths.get(name)
-                : Paths.get(parent, name);
+        Path path = tableModel.getFile(resultTable.convertRowIndexToModel(row)).toPath();
 
         try {
             switch (action) {
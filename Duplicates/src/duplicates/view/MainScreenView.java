@@ -1,5 +1,6 @@
 package duplicates.view;
 
+import duplicates.controller.DuplicateResultStore;
 import duplicates.controller.FileAccessController;
 import duplicates.controller.XMLController;
 import duplicates.model.DuplicateSearchOptionsModel;
@@ -11,8 +12,10 @@ import duplicates.renderer.CheckBoxNodeRenderer;
 import javax.swing.*;
 import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.tree.DefaultMutableTreeNode;
 import java.awt.*;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -167,6 +170,16 @@ public class MainScreenView extends JFrame {
         });
         fileMenu.add(loadFileSearchSettings);
 
+        JMenuItem openResults = new JMenuItem("Frühere Ergebnisse öffnen...");
+        openResults.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(new File(DuplicateResultStore.RESULTS_DIR));
+            chooser.setFileFilter(new FileNameExtensionFilter("Ergebnisdateien (*.dsr, *.xml)", "dsr", "xml"));
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                SavedResultsView.open(this, chooser.getSelectedFile());
+            }
+        });
+        fileMenu.add(openResults);
+
         JMenuItem exitItem = new JMenuItem("Exit");
         exitItem.addActionListener(e -> {
             dispose();
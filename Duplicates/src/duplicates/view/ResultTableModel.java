@@ -0,0 +1,202 @@
+package duplicates.view;
+
+import duplicates.model.PathDictionary;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Basis der Ergebnistabellen für Millionen Zeilen: die Werte liegen spaltenweise in primitiven
+ * Arrays, wiederkehrende Texte (Typ, Hash) in einer Texttabelle und die Häkchen in einem
+ * {@link BitSet}. Pfade bleiben als (Verzeichnis-ID, Namens-ID) im {@link PathDictionary} der
+ * Suche und werden nicht noch einmal gespeichert. Je Zeile bleiben so rund 40 Byte statt
+ * eines {@code Vector} mit geboxten Werten und eigenen Strings (gut 300 Byte).
+ *
+ * Gemeinsame Spalten: 0 Häkchen, 1 Dateiname, 2 Pfad, 3 Größe, 4 Typ, 5 Erstellt, 6 Geändert;
+ * Unterklassen hängen eigene Spalten an. Nur im EDT benutzen.
+ */
+abstract class ResultTableModel extends AbstractTableModel {
+
+    static final int COL_CHECK = 0, COL_NAME = 1, COL_PATH = 2, COL_SIZE = 3, COL_TYPE = 4,
+            COL_CREATED = 5, COL_MODIFIED = 6;
+
+    /** Kein Datum (Epochentag). */
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final String[] columnNames;
+    private PathDictionary paths; // Wörterbuch der Suche (von der ersten Zeile übernommen)
+    private final Map<String, Integer> textIds = new HashMap<>();
+    private final List<String> texts = new ArrayList<>();
+    private final BitSet checked = new BitSet();
+
+    protected int size;
+    private int[] dirIds = new int[0];
+    private int[] nameIds = new int[0];
+    private long[] sizes = new long[0];
+    private int[] typeIds = new int[0];
+    private int[] created = new int[0];
+    private int[] modified = new int[0];
+
+    ResultTableModel(String... columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    // --- Zeilen anlegen ---
+
+    /**
+     * Hängt eine Zeile mit den gemeinsamen Spalten an, ohne Ereignis; die Unterklasse füllt
+     * ihre Spalten und meldet einen Stapel danach mit {@link #fireTableRowsInserted}.
+     *
+     * @return Index der neuen Zeile
+     */
+    protected int appendRow(PathDictionary source, int dirId, int nameId, long sizeBytes, String type,
+                            LocalDate creationDate, LocalDate modificationDate) {
+        if (size == dirIds.length) grow(Math.max(1024, size * 2));
+        if (paths == null) paths = source;
+        int row = size++;
+        if (source == paths) {
+            dirIds[row] = dirId;
+            nameIds[row] = nameId;
+        } else { // Zeile aus einem anderen Wörterbuch: Pfad übernehmen
+            dirIds[row] = paths.internDirectory(source.directoryPath(dirId));
+            nameIds[row] = paths.internName(source.name(nameId));
+        }
+        sizes[row] = sizeBytes;
+        typeIds[row] = textId(type);
+        created[row] = epochDay(creationDate);
+        modified[row] = epochDay(modificationDate);
+        return row;
+    }
+
+    /** Vergrößert alle Spalten-Arrays; Unterklassen erweitern ihre eigenen und rufen super. */
+    protected void grow(int capacity) {
+        dirIds = Arrays.copyOf(dirIds, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        typeIds = Arrays.copyOf(typeIds, capacity);
+        created = Arrays.copyOf(created, capacity);
+        modified = Arrays.copyOf(modified, capacity);
+    }
+
+    /** Verschiebt Zeile {@code from} nach {@code to} (beim Verdichten); Unterklassen rufen super. */
+    protected void moveRow(int from, int to) {
+        dirIds[to] = dirIds[from];
+        nameIds[to] = nameIds[from];
+        sizes[to] = sizes[from];
+        typeIds[to] = typeIds[from];
+        created[to] = created[from];
+        modified[to] = modified[from];
+        checked.set(to, checked.get(from));
+    }
+
+    /** Nach dem Verdichten, vor dem Ereignis; für abgeleitete Daten der Unterklassen. */
+    protected void rowsCompacted() {
+    }
+
+    // --- Häkchen und Entfernen ---
+
+    /** Entfernt alle angehakten Zeilen in einem Durchlauf (statt removeRow je Zeile). */
+    int removeChecked() {
+        int removed = checked.cardinality();
+        if (removed == 0) return 0;
+        int to = checked.nextSetBit(0);
+        for (int from = to + 1; from < size; from++) {
+            if (!checked.get(from)) moveRow(from, to++);
+        }
+        checked.clear(to, size);
+        size = to;
+        rowsCompacted();
+        fireTableDataChanged();
+        return removed;
+    }
+
+    void setAllChecked(boolean value) {
+        if (size == 0) return;
+        checked.set(0, size, value);
+        fireTableChanged(new TableModelEvent(this, 0, size - 1, COL_CHECK));
+    }
+
+    File getFile(int row) {
+        return paths.file(dirIds[row], nameIds[row]);
+    }
+
+    /** Position eines wiederkehrenden Textes in der Texttabelle. */
+    protected int textId(String text) {
+        return textIds.computeIfAbsent(text != null ? text : "", t -> {
+            texts.add(t);
+            return texts.size() - 1;
+        });
+    }
+
+    protected String text(int id) {
+        return texts.get(id);
+    }
+
+    // --- TableModel ---
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return switch (column) {
+            case COL_CHECK -> Boolean.class;
+            case COL_SIZE -> Long.class;
+            default -> String.class;
+        };
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == COL_CHECK; // Nur Checkbox editierbar
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return switch (column) {
+            case COL_CHECK -> checked.get(row);
+            case COL_NAME -> paths.name(nameIds[row]);
+            case COL_PATH -> paths.directoryPath(dirIds[row]);
+            case COL_SIZE -> sizes[row];
+            case COL_TYPE -> texts.get(typeIds[row]);
+            case COL_CREATED -> date(created[row]);
+            case COL_MODIFIED -> date(modified[row]);
+            default -> null;
+        };
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        if (column != COL_CHECK) return;
+        checked.set(row, Boolean.TRUE.equals(value));
+        fireTableCellUpdated(row, column);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NO_DATE;
+    }
+
+    private static String date(int epochDay) {
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay).toString() : "-";
+    }
+}
@@ -0,0 +1,184 @@
+package duplicates.view;
+
+import duplicates.controller.SavedResults;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Zeigt eine gespeicherte Ergebnisdatei (".dsr" oder XML) an. Die Tabelle lädt nur die
+ * Seiten, die gerade sichtbar sind, und behält die zuletzt gebrauchten im Speicher; auch
+ * Millionen Zeilen öffnen so sofort.
+ */
+public class SavedResultsView extends JFrame {
+
+    /** Lesbare Spaltenüberschriften für die Attributnamen der Ergebnisdateien. */
+    private static final Map<String, String> HEADINGS = Map.ofEntries(
+            Map.entry("group", "groupId"),
+            Map.entry("name", "Dateiname"),
+            Map.entry("path", "Pfad"),
+            Map.entry("parent", "Pfad"),
+            Map.entry("fullPath", "Vollständiger Pfad"),
+            Map.entry("sizeBytes", "Größe (Byte)"),
+            Map.entry("type", "Typ"),
+            Map.entry("created", "Erstellt"),
+            Map.entry("modified", "Geändert"),
+            Map.entry("hash", "Hash"),
+            Map.entry("verified", "Geprüft"),
+            Map.entry("similarity", "Ähnlichkeit (%)"),
+            Map.entry("hidden", "Versteckt"),
+            Map.entry("readOnly", "Schreibgeschützt"));
+
+    public SavedResultsView(File file, SavedResults results) {
+        super("Ergebnisse – " + file.getName());
+
+        setSize(1024, 768);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        PagedTableModel model = new PagedTableModel(results);
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        // kein RowSorter: Sortieren bräuchte alle Zeilen im Speicher
+
+        JLabel status = new JLabel(String.format(" %,d Einträge", results.getRowCount()));
+
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.add(new JScrollPane(table), BorderLayout.CENTER);
+        mainPanel.add(status, BorderLayout.SOUTH);
+        add(mainPanel);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                model.dispose();
+                try {
+                    results.close();
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Öffnet eine Ergebnisdatei im Hintergrund (beim ersten Öffnen einer XML-Datei wird der
+     * Offset-Index erzeugt) und zeigt sie dann an.
+     */
+    public static void open(Component parent, File file) {
+        parent.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<SavedResults, Void>() {
+            @Override
+            protected SavedResults doInBackground() throws Exception {
+                return SavedResults.open(file);
+            }
+
+            @Override
+            protected void done() {
+                parent.setCursor(Cursor.getDefaultCursor());
+                try {
+                    new SavedResultsView(file, get()).setVisible(true);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(parent,
+                            "Ergebnisdatei kann nicht geöffnet werden:\n" + cause.getMessage(),
+                            "Fehler", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Tabellenmodell, das Zeilen seitenweise nachlädt. Fehlt eine Seite, liefert es zunächst
+     * leere Zellen, lädt sie in einem eigenen Thread und meldet die Zeilen danach als geändert.
+     */
+    private static final class PagedTableModel extends AbstractTableModel {
+
+        private static final int PAGE_SIZE = 256;
+        private static final int CACHED_PAGES = 64;
+
+        private final SavedResults results;
+        private final List<String> columns;
+        private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Ergebnisse laden");
+            t.setDaemon(true);
+            return t;
+        });
+        private final Set<Integer> loading = new HashSet<>(); // nur EDT
+        private final Map<Integer, List<String[]>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<String[]>> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+
+        PagedTableModel(SavedResults results) {
+            this.results = results;
+            this.columns = results.getColumns();
+        }
+
+        @Override
+        public int getRowCount() {
+            return results.getRowCount();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.size();
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return HEADINGS.getOrDefault(columns.get(column), columns.get(column));
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            int page = row / PAGE_SIZE;
+            List<String[]> rows = pages.get(page);
+            if (rows == null) {
+                request(page);
+                return "";
+            }
+            int index = row - page * PAGE_SIZE;
+            return index < rows.size() ? rows.get(index)[column] : "";
+        }
+
+        private void request(int page) {
+            if (!loading.add(page)) return;
+            loader.execute(() -> {
+                List<String[]> rows;
+                try {
+                    rows = results.read(page * PAGE_SIZE, PAGE_SIZE);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    rows = List.of();
+                }
+                List<String[]> loaded = rows;
+                SwingUtilities.invokeLater(() -> {
+                    loading.remove(page);
+                    pages.put(page, loaded);
+                    int first = page * PAGE_SIZE;
+                    int last = Math.min(getRowCount(), first + PAGE_SIZE) - 1;
+                    if (last >= first) fireTableRowsUpdated(first, last);
+                });
+            });
+        }
+
+        void dispose() {
+            loader.shutdownNow();
+        }
+    }
+}